@@ -0,0 +1,237 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class BenchmarkPages {
+    // where the benchmarks' pages are kept (gzipped, each named after the page it is), from the repository root
+    public static final Path FIXTURES = Paths.get("bench", "fixtures");
+
+    // the month rebuilt when no real pages are given, and how many of its box score pages are kept
+    private static final int SEASON = 2022;
+    private static final int MONTH_NUMBER = 11;
+    private static final int BOX_SCORE_PAGES = 4;
+
+    // roughly what a month of basketball-reference.com's schedule has (about 15 games a night)
+    private static final int GAMES_PER_SCHEDULE_PAGE = 220;
+    // players per team in a box score
+    private static final int PLAYERS_PER_TEAM = 13;
+    // the box score tables basketball-reference.com shows per team, besides the full-game basic table
+    private static final String[] OTHER_BASIC_TABLES = {"q1", "q2", "h1", "q3", "q4", "h2"};
+
+    private static final String[] TEAMS = Nba.TEAMS.keySet().toArray(new String[0]);
+
+
+    /**
+     * saves the pages the benchmarks parse into bench/fixtures, from the repository root, e.g.,
+     *      java -cp target/benchmarks.jar BenchmarkPages https://www.basketball-reference.com/boxscores/...
+     * Each page given is copied from <code>PageCache.SHARED</code>, so pages a real run downloaded are benchmarked
+     * exactly as basketball-reference.com served them. With no pages given, November 2021's schedule page and a
+     * few of its box score pages are rebuilt from Season2022's month files instead.
+     * @throws IOException if a page isn't in the cache, or cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Files.createDirectories(FIXTURES);
+        if (args.length == 0) {
+            generate();
+        }
+        for (String url : args) {
+            PageCache.Entry entry = PageCache.SHARED.lookup(url);
+            if (entry == null) {
+                throw new FileNotFoundException(url + " isn't in PageCache; fetch it with a normal run first");
+            }
+            save(url, entry.readBody());
+        }
+    }
+
+
+    /**
+     * reads every page saved in bench/fixtures
+     * @param schedulePages where to add the schedule pages
+     * @param boxScorePages where to add the box score pages
+     * @throws IOException if a page cannot be read
+     */
+    public static void load(List<byte[]> schedulePages, List<byte[]> boxScorePages) throws IOException {
+        try (DirectoryStream<Path> pages = Files.newDirectoryStream(FIXTURES, "*.html.gz")) {
+            for (Path page : pages) {
+                byte[] body;
+                try (InputStream in = PageCache.decompress(Files.newInputStream(page))) {
+                    body = in.readAllBytes();
+                }
+                // e.g., NBA_2022_games-november.html.gz
+                if (page.getFileName().toString().contains("_games-")) {
+                    schedulePages.add(body);
+                }
+                else {
+                    boxScorePages.add(body);
+                }
+            }
+        }
+        if (schedulePages.isEmpty() || boxScorePages.isEmpty()) {
+            throw new FileNotFoundException("no pages in " + FIXTURES +
+                    "; run the benchmarks from the repository root");
+        }
+    }
+
+    // e.g., https://www.basketball-reference.com/boxscores/202111020CHI.html -> 202111020CHI.html.gz
+    private static void save(String url, byte[] body) throws IOException {
+        Path page = FIXTURES.resolve(url.substring(url.lastIndexOf('/') + 1) + ".gz");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        Files.write(page, compressed.toByteArray());
+        System.out.println("Saved " + url + " to " + page + ".");
+    }
+
+
+    /**
+     * rebuilds a month's pages in the shape of basketball-reference.com's from the season's month file: its
+     * schedule page (the month's birthday games, padded out with other games), and a box score page for each of its
+     * first few played birthday games (with its birthday boys' stats, the rest of both rosters, per-quarter and
+     * advanced tables, and the scripts and comments a real page has)
+     * @throws IOException if the month file cannot be read, or a page cannot be written
+     */
+    private static void generate() throws IOException {
+        ArrayList<GameRecord> records = new GameRecordStore(SEASON).importMonthFile(MONTH_NUMBER);
+        StringBuilder schedule = new StringBuilder();
+        appendPageHead(schedule);
+        schedule.append("<table class=\"suppress_glossary sortable stats_table\" id=\"schedule\" ")
+                .append("data-cols-to-freeze=\",1\">\n<thead><tr><th data-stat=\"date_game\">Date</th>")
+                .append("<th data-stat=\"visitor_team_name\">Visitor</th><th data-stat=\"visitor_pts\">PTS</th>")
+                .append("<th data-stat=\"home_team_name\">Home</th><th data-stat=\"home_pts\">PTS</th>")
+                .append("</tr></thead>\n<tbody>\n");
+        int boxScorePages = 0;
+        for (int i = 0; i < GAMES_PER_SCHEDULE_PAGE; i++) {
+            if (i < records.size()) {
+                GameRecord record = records.get(i);
+                appendScheduleRow(schedule, SEASON, record.getGameDate(), record.getVisitor(),
+                        record.getHome(), record.getVisitorPoints(), record.getHomePoints());
+                if (record.isPlayed() && boxScorePages < BOX_SCORE_PAGES) {
+                    save(BoxScore.getUrl(record.getGameDate(), record.getHome()), buildBoxScore(record));
+                    boxScorePages++;
+                }
+            }
+            else {
+                // other games that night, between teams with no birthdays
+                LocalDate gameDate = records.get(i % records.size()).getGameDate();
+                appendScheduleRow(schedule, SEASON, gameDate, TEAMS[i % TEAMS.length],
+                        TEAMS[(i + 7) % TEAMS.length], String.valueOf(100 + i % 23), String.valueOf(99 + i % 29));
+            }
+        }
+        schedule.append("</tbody></table>\n");
+        appendPageTail(schedule);
+        save(MonthScraper.getSchedulePage(SEASON, MONTH_NUMBER), schedule.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendScheduleRow(StringBuilder schedule, int season, LocalDate gameDate, String visitor,
+                                          String home, String visitorPoints, String homePoints) {
+        String date = gameDate.toString().replace("-", "");
+        schedule.append("<tr ><th scope=\"row\" class=\"left \" data-stat=\"date_game\" csk=\"").append(date)
+                .append("0").append(home).append("\" ><a href=\"/boxscores/index.fcgi?month=")
+                .append(gameDate.getMonthValue()).append("&amp;day=").append(gameDate.getDayOfMonth())
+                .append("&amp;year=").append(gameDate.getYear()).append("\">").append(gameDate)
+                .append("</a></th><td class=\"right \" data-stat=\"game_start_time\" >7:30p</td>")
+                .append("<td class=\"left \" data-stat=\"visitor_team_name\" csk=\"").append(visitor)
+                .append(".").append(date).append("\" ><a href=\"/teams/").append(visitor).append("/")
+                .append(season).append(".html\">").append(Nba.TEAMS.getOrDefault(visitor, visitor))
+                .append("</a></td><td class=\"right \" data-stat=\"visitor_pts\" >").append(visitorPoints)
+                .append("</td><td class=\"left \" data-stat=\"home_team_name\" csk=\"").append(home)
+                .append(".").append(date).append("\" ><a href=\"/teams/").append(home).append("/")
+                .append(season).append(".html\">").append(Nba.TEAMS.getOrDefault(home, home))
+                .append("</a></td><td class=\"right \" data-stat=\"home_pts\" >").append(homePoints)
+                .append("</td><td class=\"center \" data-stat=\"box_score_text\" ><a href=\"/boxscores/")
+                .append(date).append("0").append(home).append(".html\">Box Score</a></td>")
+                .append("<td class=\"right \" data-stat=\"attendance\" >18,064</td></tr>\n");
+    }
+
+    private static byte[] buildBoxScore(GameRecord record) {
+        StringBuilder page = new StringBuilder();
+        appendPageHead(page);
+        for (String team : new String[]{record.getVisitor(), record.getHome()}) {
+            appendBoxScoreTable(page, record, team, "game-basic", true);
+            for (String table : OTHER_BASIC_TABLES) {
+                appendBoxScoreTable(page, record, team, table + "-basic", false);
+            }
+            // basketball-reference.com ships the advanced tables commented out, and unhides them with a script
+            page.append("<div class=\"placeholder\"></div>\n<!--\n");
+            appendBoxScoreTable(page, record, team, "game-advanced", false);
+            page.append("\n-->\n");
+        }
+        appendPageTail(page);
+        return page.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendBoxScoreTable(StringBuilder page, GameRecord record, String team, String table,
+                                            boolean withBirthdayBoys) {
+        page.append("<table class=\"sortable stats_table\" id=\"box-").append(team).append("-").append(table)
+                .append("\" data-cols-to-freeze=\",1\">\n<thead><tr><th data-stat=\"player\">Starters</th>");
+        for (String stat : StatLine.STATS) {
+            page.append("<th data-stat=\"").append(stat).append("\">").append(stat.toUpperCase()).append("</th>");
+        }
+        page.append("</tr></thead>\n<tbody>\n");
+
+        int players = 0;
+        if (withBirthdayBoys) {
+            for (GameRecord.BirthdayBoy birthdayBoy : record.getBirthdayBoys()) {
+                if (birthdayBoy.getTeam().equals(team)) {
+                    appendPlayerRow(page, birthdayBoy.getName(), birthdayBoy.getStats());
+                    players++;
+                }
+            }
+        }
+        for (int i = players; i < PLAYERS_PER_TEAM; i++) {
+            String[] values = {(20 + i) + ":" + (10 + i), String.valueOf(i), String.valueOf(i / 2),
+                    String.valueOf(i), String.valueOf(i % 7), String.valueOf(i % 5)};
+            StatLine stats = i < PLAYERS_PER_TEAM - 2 ? new StatLine(StatLine.Status.PLAYED, values) :
+                    new StatLine(StatLine.Status.DID_NOT_PLAY, null);
+            appendPlayerRow(page, team + " Player " + i, stats);
+        }
+        page.append("</tbody>\n<tfoot><tr><th scope=\"row\" class=\"left \" data-stat=\"player\" >Team Totals</th>")
+                .append("<td class=\"right \" data-stat=\"mp\" >240</td></tr></tfoot></table>\n");
+    }
+
+    private static void appendPlayerRow(StringBuilder page, String name, StatLine stats) {
+        String playerId = (name.toLowerCase().replaceAll("[^a-z]", "") + "xxxxxxx").substring(0, 7) + "01";
+        page.append("<tr ><th scope=\"row\" class=\"left \" data-append-csv=\"").append(playerId)
+                .append("\" data-stat=\"player\" csk=\"").append(name).append("\" ><a href=\"/players/")
+                .append(playerId.charAt(0)).append("/").append(playerId).append(".html\">").append(name)
+                .append("</a></th>");
+        if (stats.getStatus() == StatLine.Status.PLAYED) {
+            for (String stat : StatLine.STATS) {
+                page.append("<td class=\"right \" data-stat=\"").append(stat).append("\" >")
+                        .append(stats.get(stat)).append("</td>");
+            }
+        }
+        else {
+            String reason = stats.getStatus() == StatLine.Status.DID_NOT_DRESS ? "Did Not Dress" :
+                    stats.getStatus() == StatLine.Status.DID_NOT_PLAY ? "Did Not Play" : "Player Suspended";
+            page.append("<td class=\"center iz\" data-stat=\"reason\" colspan=\"6\" >").append(reason)
+                    .append("</td>");
+        }
+        page.append("</tr>\n");
+    }
+
+    private static void appendPageHead(StringBuilder page) {
+        page.append("<!DOCTYPE html>\n<html data-version=\"klecko-\" lang=\"en\"><head>\n")
+                .append("<meta charset=\"utf-8\">\n<title>Basketball-Reference.com</title>\n<script>\n");
+        // real pages open with tens of kilobytes of inline script, which the parser has to skip over
+        for (int i = 0; i < 400; i++) {
+            page.append("var sr_").append(i).append(" = function(a, b) { return a < b ? '<td>' : '</td>'; };\n");
+        }
+        page.append("</script>\n</head>\n<body class=\"bbr\">\n<div id=\"wrap\"><div id=\"header\">")
+                .append("<!-- navigation --><ul><li><a href=\"/teams/\">Teams</a></li>")
+                .append("<li><a href=\"/players/\">Players</a></li></ul></div>\n<div id=\"content\">\n");
+    }
+
+    private static void appendPageTail(StringBuilder page) {
+        page.append("</div>\n<div id=\"footer\"><!-- footer --><p>Copyright &copy; Sports Reference LLC</p>")
+                .append("</div></div>\n</body></html>\n");
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import benchmarks.Stages;
+
+public class BenchmarkStages implements Stages {
+    // the season whose checked-in rosters and month files are the fixtures
+    private static final int SEASON = 2022;
+
+    private File[] rosterFiles;
+    // with April's birthday index built, for inSeasonTeamBirthdaysToString
+    private Nba nba;
+    private List<byte[]> schedulePages;
+    private List<byte[]> boxScorePages;
+    private GameRecordStore store;
+    // the season's birthday-game files, written for the statistics benchmarks and deleted by tearDown
+    private Path birthdayGameDirectory;
+    private GroupedStatistics statistics;
+
+
+    public void setUp() throws IOException {
+        rosterFiles = new File("Season" + SEASON + "/TeamRosters").listFiles();
+        if (rosterFiles == null) {
+            throw new FileNotFoundException("run the benchmarks from the directory Season" + SEASON + " is in");
+        }
+        nba = new Nba(SEASON);
+        nba.setInSeasonTeamBirthdays(4);
+
+        schedulePages = new ArrayList<>();
+        boxScorePages = new ArrayList<>();
+        BenchmarkPages.load(schedulePages, boxScorePages);
+
+        store = new GameRecordStore(SEASON);
+        birthdayGameDirectory = Files.createTempDirectory("birthday-games");
+        ArrayList<GroupedStatistics.Part> parts = new ArrayList<>();
+        for (int monthNumber : Nba.MONTHS.keySet()) {
+            Path path = birthdayGameDirectory.resolve(Nba.MONTHS.get(monthNumber) + ".bin");
+            BirthdayGameFile.write(path, store.importMonthFile(monthNumber));
+            parts.add(new GroupedStatistics.Part(SEASON, monthNumber, path));
+        }
+        statistics = new GroupedStatistics(parts);
+    }
+
+
+    public void tearDown() throws IOException {
+        if (birthdayGameDirectory != null) {
+            // the files before the directory they're in
+            try (Stream<Path> paths = Files.walk(birthdayGameDirectory)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+            birthdayGameDirectory = null;
+        }
+    }
+
+
+    public Object rosterParse() {
+        int players = 0;
+        for (File rosterFile : rosterFiles) {
+            players += RosterSnapshot.parse(rosterFile, 0).size();
+        }
+        return players;
+    }
+
+    public Object nbaSetInSeasonTeamBirthdays() {
+        // a new Nba has no indexes yet, so every month's index is built (from the cached snapshots)
+        Nba season = new Nba(SEASON);
+        for (int monthNumber : Nba.MONTHS.keySet()) {
+            season.setInSeasonTeamBirthdays(monthNumber);
+        }
+        return season;
+    }
+
+    public Object nbaInSeasonTeamBirthdaysToString() {
+        int length = 0;
+        for (String team : Nba.TEAMS.keySet()) {
+            length += nba.inSeasonTeamBirthdaysToString(team).length();
+        }
+        return length;
+    }
+
+    public Object scheduleGameParse() throws IOException {
+        int[] games = new int[1];
+        for (byte[] page : schedulePages) {
+            ScheduleGame.parse(new ByteArrayInputStream(page), game -> games[0]++);
+        }
+        return games[0];
+    }
+
+    public Object boxScoreParse() {
+        int empty = 0;
+        for (byte[] page : boxScorePages) {
+            empty += BoxScore.parse(new ByteArrayInputStream(page)).isEmpty() ? 1 : 0;
+        }
+        return empty;
+    }
+
+    public Object gameRecordStoreImportMonthFile() throws IOException {
+        int records = 0;
+        for (int monthNumber : Nba.MONTHS.keySet()) {
+            records += store.importMonthFile(monthNumber).size();
+        }
+        return records;
+    }
+
+    public Object statisticsAll() {
+        return statistics.aggregate(GroupedStatistics.Grouping.ALL);
+    }
+
+    public Object statisticsGrouped() {
+        return statistics.aggregate(GroupedStatistics.Grouping.values());
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * benchmarks each stage of the pipeline, from parsing rosters to tallying statistics, against the checked-in
+ * Season2022 files and the pages saved in bench/fixtures
+ * Build and run from the repository root (where Season2022 is), e.g.,
+ *      mvn -P jmh package
+ *      java -jar target/benchmarks.jar -prof gc -rf csv -rff bench-results.csv
+ * <code>-prof gc</code> adds each benchmark's allocation rate (gc.alloc.rate.norm is bytes per operation), and
+ * <code>-rf csv</code> saves the results, so runs can be compared over time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NbaBenchmarks {
+    private Stages stages;
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException, IOException {
+        // in the default package, so it can only be found by name (see Stages)
+        stages = (Stages) Class.forName("BenchmarkStages").getConstructor().newInstance();
+        stages.setUp();
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        stages.tearDown();
+    }
+
+
+    // rosters -> birthday indexes -> AllInSeasonBirthdaysAllTeams.txt
+
+    @Benchmark
+    public Object rosterParse() {
+        return stages.rosterParse();
+    }
+
+    @Benchmark
+    public Object nbaSetInSeasonTeamBirthdays() {
+        return stages.nbaSetInSeasonTeamBirthdays();
+    }
+
+    @Benchmark
+    public Object nbaInSeasonTeamBirthdaysToString() {
+        return stages.nbaInSeasonTeamBirthdaysToString();
+    }
+
+
+    // saved pages -> game records
+
+    @Benchmark
+    public Object scheduleGameParse() throws IOException {
+        return stages.scheduleGameParse();
+    }
+
+    @Benchmark
+    public Object boxScoreParse() {
+        return stages.boxScoreParse();
+    }
+
+
+    // month files -> birthday-game files -> statistics
+
+    @Benchmark
+    public Object gameRecordStoreImportMonthFile() throws IOException {
+        return stages.gameRecordStoreImportMonthFile();
+    }
+
+    @Benchmark
+    public Object statisticsAll() {
+        return stages.statisticsAll();
+    }
+
+    @Benchmark
+    public Object statisticsGrouped() {
+        return stages.statisticsGrouped();
+    }
+}
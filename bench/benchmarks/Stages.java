@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.io.IOException;
+
+/**
+ * the stages of the pipeline that <code>NbaBenchmarks</code> measures, each run once per call against the
+ * fixtures loaded by <code>setUp</code>
+ * The program's classes are all in the default package, which JMH won't generate benchmarks for and which a named
+ * package can't refer to, so they're called through this interface, implemented by the default package's
+ * <code>BenchmarkStages</code>. Every stage returns its result, so the JIT can't optimize the work away.
+ */
+public interface Stages {
+    /**
+     * loads the fixtures: Season2022's rosters and month files, and the pages saved in bench/fixtures
+     * @throws IOException if a fixture cannot be read, or the birthday-game files cannot be written
+     */
+    void setUp() throws IOException;
+
+
+    /**
+     * deletes anything <code>setUp</code> wrote
+     * @throws IOException if a file cannot be deleted
+     */
+    void tearDown() throws IOException;
+
+
+    // RosterSnapshot.parse over every team's roster file
+    Object rosterParse();
+
+    // Nba.setInSeasonTeamBirthdays for every month, from the cached roster snapshots
+    Object nbaSetInSeasonTeamBirthdays();
+
+    // Nba.inSeasonTeamBirthdaysToString for every team
+    Object nbaInSeasonTeamBirthdaysToString();
+
+    // ScheduleGame.parse over every saved schedule page
+    Object scheduleGameParse() throws IOException;
+
+    // BoxScore.parse over every saved box score page
+    Object boxScoreParse();
+
+    // GameRecordStore.importMonthFile for every month
+    Object gameRecordStoreImportMonthFile() throws IOException;
+
+    // GroupedStatistics.aggregate over the season's birthday-game files, ungrouped
+    Object statisticsAll();
+
+    // GroupedStatistics.aggregate over the season's birthday-game files, in every grouping
+    Object statisticsGrouped();
+}
@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Backfill {
+    // how often the backfill reports its progress while it's fetching pages
+    private static final Duration PROGRESS_REPORT_PERIOD = Duration.ofMinutes(5);
+    // how many seasons run at once; more would only add threads waiting on the same request budget
+    private static final int MAX_PARALLEL_SEASONS = 4;
+
+    private final int FIRST_SEASON;
+    private final int LAST_SEASON;
+
+
+    /**
+     * Class constructor
+     * @param firstSeason the first NBA season to (re)build, e.g., 1984
+     * @param lastSeason  the last NBA season to (re)build, e.g., 2023
+     * @throws IllegalArgumentException if the first season is before <code>TeamHistory.FIRST_SEASON</code>, so its
+     *                                  teams' abbreviations aren't known
+     */
+    public Backfill(int firstSeason, int lastSeason) {
+        TeamHistory.checkSeason(firstSeason);
+        this.FIRST_SEASON = firstSeason;
+        this.LAST_SEASON = lastSeason;
+    }
+
+
+    /**
+     * runs every season in the range as one unattended job
+     * Up to <code>MAX_PARALLEL_SEASONS</code> seasons run at once, so the offline work (parsing rosters, indexing
+     * birthdays, writing files, tallying statistics) of one season overlaps with the others, while all of their
+     * requests draw from the single <code>RequestScheduler.BASKETBALL_REFERENCE</code> budget and keep it fully used.
+     * A season that fails is reported at the end, and doesn't stop the others. If none fail, the
+     * <code>GroupedStatistics</code> reports are rebuilt over every saved season. Either way, progress is
+     * reported every few minutes while pages are being fetched, and the run's metrics are saved to Metrics.prom.
+     * @throws InterruptedException if the backfill is interrupted while waiting for a season to finish
+     */
+    public void run() throws InterruptedException {
+        System.out.println("Backfilling the " + FIRST_SEASON + " through " + LAST_SEASON + " NBA seasons.");
+        printPlan();
+        Metrics.RUN.startProgressReports(PROGRESS_REPORT_PERIOD);
+        ExecutorService seasonThreads = Executors.newFixedThreadPool(
+                Math.min(LAST_SEASON - FIRST_SEASON + 1, MAX_PARALLEL_SEASONS));
+        ArrayList<Future<?>> seasons = new ArrayList<>();
+        for (int season = FIRST_SEASON; season <= LAST_SEASON; season++) {
+            Nba nbaSeason = new Nba(season);
+            seasons.add(seasonThreads.submit(() -> {
+                nbaSeason.runUnattended();
+                return null;
+            }));
+        }
+        seasonThreads.shutdown();
+
+        ArrayList<String> failures = new ArrayList<>();
+        try {
+            for (int i = 0; i < seasons.size(); i++) {
+                try {
+                    seasons.get(i).get();
+                }
+                catch (ExecutionException e) {
+                    failures.add(" - " + (FIRST_SEASON + i) + ": " + e.getCause());
+                }
+            }
+        }
+        finally {
+            Metrics.RUN.stopProgressReports();
+            Metrics.RUN.writeTo(Paths.get("Metrics.prom"));
+        }
+        if (failures.isEmpty()) {
+            System.out.println("Backfill complete.");
+            try {
+                GroupedStatistics.forSeasons(GroupedStatistics.findSeasons()).makeReportFiles();
+            }
+            catch (IOException e) {
+                System.out.println("The reports couldn't be written: " + e);
+            }
+        }
+        else {
+            System.out.println("Backfill finished, but these seasons failed (re-run to pick up where they left off):");
+            failures.forEach(System.out::println);
+        }
+    }
+
+
+    // lets the user know up front how many requests the backfill will make, and about how long they'll take
+    private void printPlan() {
+        ArrayList<Integer> seasons = new ArrayList<>();
+        for (int season = FIRST_SEASON; season <= LAST_SEASON; season++) {
+            seasons.add(season);
+        }
+        try {
+            FetchPlanner planner = new FetchPlanner(seasons, PageCache.SHARED, RequestScheduler.BASKETBALL_REFERENCE);
+            planner.plan();
+            planner.printPlan(false);
+        }
+        catch (IOException e) {
+            System.out.println("The backfill's requests couldn't be planned: " + e);
+        }
+    }
+}
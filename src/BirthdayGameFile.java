@@ -0,0 +1,262 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class BirthdayGameFile {
+    /**
+     * A birthday-game file holds one fixed-width row per birthday boy per game, in schedule order (and,
+     * within a game, visitors first), so that statistics can be tallied by scanning primitive columns
+     * straight out of a memory-mapped file rather than re-parsing the text month files.
+     *      header:  magic, version, rowCount, playerCount (4-byte ints)
+     *      rows:    rowCount rows of ROW_BYTES bytes each (laid out below)
+     *      players: playerCount players, each as his basketball-reference.com id, then his name (both as
+     *               written by DataOutputStream.writeUTF)
+     * A row's player number is his position among the file's players. Players are told apart by id, so two
+     * players with the same name are two players; only a birthday boy imported without an id (see
+     * <code>GameRecordStore.importMonthFile</code>) is told apart by name, and is written with an empty id.
+     */
+    private static final int MAGIC = 0x42444159; // "BDAY"
+    // version 1 kept only each player's name
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+
+    // row layout (byte offsets)
+    private static final int GAME_DAY = 0;          // int, the game date's epoch day
+    private static final int VISITOR = 4;           // 3 ASCII bytes, e.g., "CHI"
+    private static final int HOME = 7;              // 3 ASCII bytes, e.g., "DET"
+    private static final int SIDE = 10;             // byte, 0 if the birthday boy is a visitor, 1 if he's home
+    private static final int STATUS = 11;           // byte, a StatLine.Status ordinal
+    private static final int VISITOR_POINTS = 12;   // short, -1 if the game hasn't been played
+    private static final int HOME_POINTS = 14;      // short, -1 if the game hasn't been played
+    private static final int PLAYER = 16;           // int, the player number
+    private static final int SECONDS_PLAYED = 20;   // int
+    private static final int POINTS = 24;           // short (this and the stats below are 0 unless PLAYED)
+    private static final int FG = 26;               // short
+    private static final int FGA = 28;              // short
+    private static final int REBOUNDS = 30;         // short
+    private static final int ASSISTS = 32;          // short
+    private static final int AGE = 34;              // short
+    public static final int ROW_BYTES = 36;
+
+    private static final StatLine.Status[] STATUSES = StatLine.Status.values();
+
+    private final ByteBuffer ROWS;
+    private final int ROW_COUNT;
+    // by player number
+    private final String[] PLAYER_IDS;
+    private final String[] PLAYERS;
+
+
+    /**
+     * Class constructor
+     */
+    private BirthdayGameFile(ByteBuffer rows, int rowCount, String[] playerIds, String[] players) {
+        this.ROWS = rows;
+        this.ROW_COUNT = rowCount;
+        this.PLAYER_IDS = playerIds;
+        this.PLAYERS = players;
+    }
+
+
+    /**
+     * writes every birthday boy in <code>records</code> to a birthday-game file, replacing any old one
+     * @param path    e.g., Season2023/GameRecords/October.bin
+     * @param records a month's birthday games, in schedule order
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<GameRecord> records) throws IOException {
+        ArrayList<GameRecord.BirthdayBoy> players = new ArrayList<>();
+        // player id (or name, for a birthday boy imported without one) -> player number
+        HashMap<String, Integer> playerNumbers = new HashMap<>();
+        int rowCount = 0;
+        for (GameRecord record : records) {
+            rowCount += record.getBirthdayBoys().size();
+        }
+
+        ByteBuffer rows = ByteBuffer.allocate(rowCount * ROW_BYTES);
+        for (GameRecord record : records) {
+            short visitorPoints = parsePoints(record, record.getVisitorPoints());
+            short homePoints = parsePoints(record, record.getHomePoints());
+            for (GameRecord.BirthdayBoy birthdayBoy : record.getBirthdayBoys()) {
+                int row = rows.position();
+                StatLine stats = birthdayBoy.getStats();
+                rows.putInt(row + GAME_DAY, (int) record.getGameDate().toEpochDay());
+                putTeam(rows, row + VISITOR, record.getVisitor());
+                putTeam(rows, row + HOME, record.getHome());
+                rows.put(row + SIDE, (byte) (birthdayBoy.getTeam().equals(record.getVisitor()) ? 0 : 1));
+                rows.put(row + STATUS, (byte) stats.getStatus().ordinal());
+                rows.putShort(row + VISITOR_POINTS, visitorPoints);
+                rows.putShort(row + HOME_POINTS, homePoints);
+                String playerKey = birthdayBoy.getPlayerId().isEmpty() ?
+                        birthdayBoy.getName() : birthdayBoy.getPlayerId();
+                rows.putInt(row + PLAYER, playerNumbers.computeIfAbsent(playerKey, key -> {
+                    players.add(birthdayBoy);
+                    return players.size() - 1;
+                }));
+                if (stats.getStatus() == StatLine.Status.PLAYED) {
+                    rows.putInt(row + SECONDS_PLAYED, parseSecondsPlayed(stats.get("mp")));
+                    rows.putShort(row + POINTS, Short.parseShort(stats.get("pts")));
+                    rows.putShort(row + FG, Short.parseShort(stats.get("fg")));
+                    rows.putShort(row + FGA, Short.parseShort(stats.get("fga")));
+                    rows.putShort(row + REBOUNDS, Short.parseShort(stats.get("trb")));
+                    rows.putShort(row + ASSISTS, Short.parseShort(stats.get("ast")));
+                }
+                rows.putShort(row + AGE, (short) birthdayBoy.getAge());
+                rows.position(row + ROW_BYTES);
+            }
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(16 + rows.capacity() + players.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(players.size());
+            out.write(rows.array());
+            for (GameRecord.BirthdayBoy player : players) {
+                out.writeUTF(player.getPlayerId());
+                out.writeUTF(player.getName());
+            }
+        }
+        // replaced all at once, since a statistics run may be reading the old one
+        GameRecordStore.publish(path, file.toByteArray());
+    }
+
+
+    /**
+     * memory-maps a birthday-game file
+     * @param path e.g., Season2023/GameRecords/October.bin
+     * @return the file's rows
+     * @throws IOException if the file cannot be read, or isn't a birthday-game file
+     */
+    public static BirthdayGameFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (file.limit() < HEADER_BYTES || file.getInt(0) != MAGIC || file.getInt(4) != VERSION) {
+                throw new IOException(path + " is not a birthday-game file");
+            }
+            int rowCount = file.getInt(8);
+            String[] playerIds = new String[file.getInt(12)];
+            String[] players = new String[playerIds.length];
+
+            // there are only a few dozen players per month, so they're decoded up front;
+            // the rows stay in the mapping
+            int playersStart = HEADER_BYTES + rowCount * ROW_BYTES;
+            ByteBuffer names = file.duplicate().position(playersStart);
+            for (int i = 0; i < players.length; i++) {
+                playerIds[i] = getUtf(names);
+                players[i] = getUtf(names);
+            }
+            ByteBuffer rows = file.slice(HEADER_BYTES, rowCount * ROW_BYTES);
+            return new BirthdayGameFile(rows, rowCount, playerIds, players);
+        }
+    }
+
+    /**
+     * @param path e.g., Season2023/GameRecords/October.bin
+     * @return whether the file was written in this version's format (rather than by an older version)
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCurrent(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION;
+        }
+        catch (EOFException e) {
+            return false;
+        }
+    }
+
+    public int rowCount() { return ROW_COUNT; }
+
+    public long getGameDay(int row) { return ROWS.getInt(row * ROW_BYTES + GAME_DAY); }
+
+    public String getVisitor(int row) { return getTeam(row * ROW_BYTES + VISITOR); }
+
+    public String getHome(int row) { return getTeam(row * ROW_BYTES + HOME); }
+
+    public boolean isHome(int row) { return ROWS.get(row * ROW_BYTES + SIDE) == 1; }
+
+    public StatLine.Status getStatus(int row) { return STATUSES[ROWS.get(row * ROW_BYTES + STATUS)]; }
+
+    public int getVisitorPoints(int row) { return ROWS.getShort(row * ROW_BYTES + VISITOR_POINTS); }
+
+    public int getHomePoints(int row) { return ROWS.getShort(row * ROW_BYTES + HOME_POINTS); }
+
+    public int getPlayerNumber(int row) { return ROWS.getInt(row * ROW_BYTES + PLAYER); }
+
+    public String getPlayer(int row) { return PLAYERS[getPlayerNumber(row)]; }
+
+    // empty if the birthday boy was imported without one
+    public String getPlayerId(int row) { return PLAYER_IDS[getPlayerNumber(row)]; }
+
+    public int getSecondsPlayed(int row) { return ROWS.getInt(row * ROW_BYTES + SECONDS_PLAYED); }
+
+    public int getPoints(int row) { return ROWS.getShort(row * ROW_BYTES + POINTS); }
+
+    public int getFg(int row) { return ROWS.getShort(row * ROW_BYTES + FG); }
+
+    public int getFga(int row) { return ROWS.getShort(row * ROW_BYTES + FGA); }
+
+    public int getRebounds(int row) { return ROWS.getShort(row * ROW_BYTES + REBOUNDS); }
+
+    public int getAssists(int row) { return ROWS.getShort(row * ROW_BYTES + ASSISTS); }
+
+    public int getAge(int row) { return ROWS.getShort(row * ROW_BYTES + AGE); }
+
+
+    /**
+     * @return whether <code>row</code> is the first row for its team in its game
+     *         (so that a game's result can be counted once per birthday team)
+     */
+    public boolean isFirstForTeam(int row) {
+        if (row == 0) {
+            return true;
+        }
+        int previous = (row - 1) * ROW_BYTES;
+        int current = row * ROW_BYTES;
+        // rows of the same game are adjacent, so comparing the game and side with the previous row is enough
+        return ROWS.getInt(previous + GAME_DAY) != ROWS.getInt(current + GAME_DAY) ||
+                ROWS.get(previous + SIDE) != ROWS.get(current + SIDE) ||
+                ROWS.getShort(previous + HOME) != ROWS.getShort(current + HOME) ||
+                ROWS.get(previous + HOME + 2) != ROWS.get(current + HOME + 2);
+    }
+
+    private String getTeam(int offset) {
+        return new String(new byte[]{ROWS.get(offset), ROWS.get(offset + 1), ROWS.get(offset + 2)},
+                StandardCharsets.US_ASCII);
+    }
+
+    // e.g., a player's name, as written by writeUTF
+    private static String getUtf(ByteBuffer buffer) {
+        byte[] utf = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(utf);
+        // writeUTF's modified UTF-8 only differs from UTF-8 for characters player names don't use
+        return new String(utf, StandardCharsets.UTF_8);
+    }
+
+    private static void putTeam(ByteBuffer rows, int offset, String team) {
+        for (int i = 0; i < 3; i++) {
+            rows.put(offset + i, (byte) (i < team.length() ? team.charAt(i) : ' '));
+        }
+    }
+
+    private static short parsePoints(GameRecord record, String points) {
+        return record.isPlayed() && !points.isEmpty() ? Short.parseShort(points) : -1;
+    }
+
+    // e.g., "35:11" -> 2111
+    private static int parseSecondsPlayed(String mp) {
+        int colon = mp.indexOf(':');
+        if (colon < 0) {
+            return Integer.parseInt(mp) * 60;
+        }
+        return Integer.parseInt(mp.substring(0, colon)) * 60 + Integer.parseInt(mp.substring(colon + 1));
+    }
+}
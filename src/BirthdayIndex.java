@@ -0,0 +1,208 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Comparator;
+
+public class BirthdayIndex {
+    /**
+     * days are numbered in season order, starting with July 1 (0) and ending with June 30 (365),
+     * on a leap-year calendar so that February 29 birthdays have a day of their own
+     */
+    public static final int DAYS = 366;
+    private static final int WORDS_PER_TEAM = (DAYS + 63) / 64;
+    // MONTH_OFFSETS[m] is the day of season of the 1st of month m
+    private static final int[] MONTH_OFFSETS = new int[13];
+    private static final int[] DAY_MONTHS = new int[DAYS];
+    private static final int[] DAY_DAYS_OF_MONTH = new int[DAYS];
+    static {
+        int[] daysInMonth = {0, 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+        int day = 0;
+        for (int i = 0; i < 12; i++) {
+            int month = (i + 6) % 12 + 1;
+            MONTH_OFFSETS[month] = day;
+            for (int dayOfMonth = 1; dayOfMonth <= daysInMonth[month]; dayOfMonth++) {
+                DAY_MONTHS[day] = month;
+                DAY_DAYS_OF_MONTH[day] = dayOfMonth;
+                day++;
+            }
+        }
+    }
+
+    private static final String[] TEAMS = Nba.TEAMS.keySet().toArray(new String[0]);
+    private static final HashMap<String, Integer> TEAM_NUMBERS = new HashMap<>();
+    static {
+        for (int i = 0; i < TEAMS.length; i++) {
+            TEAM_NUMBERS.put(TEAMS[i], i);
+        }
+    }
+
+    // bit (team * WORDS_PER_TEAM * 64 + day) is set if anyone on team has a birthday on day
+    private final long[] BIRTHDAY_DAYS;
+    // the players with birthdays on (team, day) are PLAYERS[FIRST_PLAYER[team * DAYS + day]] up to
+    // (but not including) PLAYERS[FIRST_PLAYER[team * DAYS + day + 1]], sorted by name
+    private final int[] FIRST_PLAYER;
+    private final PlayerBirthday[] PLAYERS;
+
+
+    /**
+     * Class constructor (use a <code>Builder</code>)
+     */
+    private BirthdayIndex(long[] birthdayDays, int[] firstPlayer, PlayerBirthday[] players) {
+        this.BIRTHDAY_DAYS = birthdayDays;
+        this.FIRST_PLAYER = firstPlayer;
+        this.PLAYERS = players;
+    }
+
+
+    /**
+     * @param teamAbbreviation e.g., "ATL", or a franchise's abbreviation in an earlier season (e.g., "NJN" for BRK)
+     * @return the franchise's position in <code>Nba.TEAMS</code>, or -1 if it isn't one (see <code>TeamHistory</code>)
+     */
+    public static int teamNumber(String teamAbbreviation) {
+        String franchise = TeamHistory.franchise(teamAbbreviation);
+        return franchise == null ? -1 : TEAM_NUMBERS.get(franchise);
+    }
+
+    public static String teamAbbreviation(int teamNumber) {
+        return TEAMS[teamNumber];
+    }
+
+    public static int teamCount() {
+        return TEAMS.length;
+    }
+
+
+    /**
+     * @param monthNumber e.g., 10 for "October"
+     * @param dayOfMonth  e.g., 18
+     * @return the day's position in the season, from 0 (July 1) to 365 (June 30)
+     */
+    public static int dayOfSeason(int monthNumber, int dayOfMonth) {
+        return MONTH_OFFSETS[monthNumber] + dayOfMonth - 1;
+    }
+
+
+    /**
+     * birthdate searches are on the day before the game
+     * @param gameDate a LocalDate representation of the game date
+     * @return the day of season of the day before <code>gameDate</code> (so March 1 looks up
+     *         February 28, rather than February 29, in a non-leap year)
+     */
+    public static int dayBeforeGame(LocalDate gameDate) {
+        if (gameDate.getMonthValue() == 3 && gameDate.getDayOfMonth() == 1 && !gameDate.isLeapYear()) {
+            return dayOfSeason(2, 28);
+        }
+        return (dayOfSeason(gameDate.getMonthValue(), gameDate.getDayOfMonth()) + DAYS - 1) % DAYS;
+    }
+
+    public static int monthOfDay(int dayOfSeason) {
+        return DAY_MONTHS[dayOfSeason];
+    }
+
+    public static int dayOfMonthOfDay(int dayOfSeason) {
+        return DAY_DAYS_OF_MONTH[dayOfSeason];
+    }
+
+
+    /**
+     * @param teamNumber  from <code>teamNumber</code> (-1 for a team we don't track)
+     * @param dayOfSeason from <code>dayOfSeason</code>
+     * @return whether anyone on the team has a birthday on that day
+     */
+    public boolean hasBirthday(int teamNumber, int dayOfSeason) {
+        if (teamNumber < 0) {
+            return false;
+        }
+        return (BIRTHDAY_DAYS[teamNumber * WORDS_PER_TEAM + (dayOfSeason >>> 6)] & (1L << dayOfSeason)) != 0;
+    }
+
+
+    /**
+     * @return the next day (on or after <code>fromDay</code>) on which anyone on the team has a birthday,
+     *         or -1 if there isn't one before the end of the season
+     */
+    public int nextBirthday(int teamNumber, int fromDay) {
+        if (teamNumber < 0 || fromDay >= DAYS) {
+            return -1;
+        }
+        int word = fromDay >>> 6;
+        long bits = BIRTHDAY_DAYS[teamNumber * WORDS_PER_TEAM + word] & (-1L << fromDay);
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == WORDS_PER_TEAM) {
+                return -1;
+            }
+            bits = BIRTHDAY_DAYS[teamNumber * WORDS_PER_TEAM + word];
+        }
+    }
+
+    public int playerCount(int teamNumber, int dayOfSeason) {
+        if (teamNumber < 0) {
+            return 0;
+        }
+        return FIRST_PLAYER[teamNumber * DAYS + dayOfSeason + 1] - FIRST_PLAYER[teamNumber * DAYS + dayOfSeason];
+    }
+
+
+    /**
+     * @param i which of the players with a birthday on (team, day), in alphabetical order
+     */
+    public PlayerBirthday getPlayer(int teamNumber, int dayOfSeason, int i) {
+        return PLAYERS[FIRST_PLAYER[teamNumber * DAYS + dayOfSeason] + i];
+    }
+
+
+    /**
+     * collects (team, birthday, player) entries in any order, from any number of threads,
+     * then lays them out as a <code>BirthdayIndex</code>
+     */
+    public static class Builder {
+        private final ArrayList<int[]> ENTRIES = new ArrayList<>();
+        private final ArrayList<PlayerBirthday> PLAYERS = new ArrayList<>();
+
+        public synchronized Builder add(String teamAbbreviation, int birthMonth, int birthDay,
+                                        PlayerBirthday player) {
+            int teamNumber = teamNumber(teamAbbreviation);
+            if (teamNumber >= 0) {
+                ENTRIES.add(new int[]{teamNumber, dayOfSeason(birthMonth, birthDay), PLAYERS.size()});
+                PLAYERS.add(player);
+            }
+            return this;
+        }
+
+        /**
+         * adds every in-season birthday on a team's roster
+         */
+        public synchronized Builder addRoster(String teamAbbreviation, RosterSnapshot roster) {
+            for (int i = 0; i < roster.size(); i++) {
+                add(teamAbbreviation, roster.getBirthMonth(i), roster.getBirthDay(i), roster.getPlayer(i));
+            }
+            return this;
+        }
+
+        public synchronized BirthdayIndex build() {
+            // sort by team, then day, then player name
+            // (rosters arrive pre-sorted, so this is nearly free when they're added in team order)
+            ENTRIES.sort(Comparator.<int[]>comparingInt(entry -> entry[0])
+                    .thenComparingInt(entry -> entry[1])
+                    .thenComparing(entry -> PLAYERS.get(entry[2]).getName()));
+
+            long[] birthdayDays = new long[TEAMS.length * WORDS_PER_TEAM];
+            int[] firstPlayer = new int[TEAMS.length * DAYS + 1];
+            PlayerBirthday[] players = new PlayerBirthday[ENTRIES.size()];
+            for (int i = 0; i < ENTRIES.size(); i++) {
+                int[] entry = ENTRIES.get(i);
+                birthdayDays[entry[0] * WORDS_PER_TEAM + (entry[1] >>> 6)] |= 1L << entry[1];
+                // count players per (team, day) for now; turned into offsets below
+                firstPlayer[entry[0] * DAYS + entry[1] + 1]++;
+                players[i] = PLAYERS.get(entry[2]);
+            }
+            for (int i = 1; i < firstPlayer.length; i++) {
+                firstPlayer[i] += firstPlayer[i - 1];
+            }
+            return new BirthdayIndex(birthdayDays, firstPlayer, players);
+        }
+    }
+}
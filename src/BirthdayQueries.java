@@ -0,0 +1,312 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class BirthdayQueries {
+    /**
+     * a fingerprint of the saved files the queries were loaded from (see <code>fingerprint</code>), so a
+     * <code>QueryServer</code> can tell when they need to be loaded again
+     */
+    private final long FINGERPRINT;
+    private final long LOADED_AT_MILLIS;
+    private final List<Integer> SEASONS;
+    private final int GAME_COUNT;
+
+    // every answer is rendered as JSON when the queries are loaded, so a query is a single map lookup
+    // date -> the birthday games played on it
+    private final Map<LocalDate, String> GAMES_BY_DATE;
+    // e.g., "ATL 2023" -> the season's games in which ATL had a birthday boy
+    private final Map<String, String> GAMES_BY_TEAM;
+    // player id (or name, for birthday boys recorded without an id) -> the games in which he was a birthday boy
+    private final Map<String, String> GAMES_BY_PLAYER;
+    // player name (e.g., "Trae Young") -> his key in GAMES_BY_PLAYER
+    private final Map<String, String> PLAYER_KEYS;
+    // player key -> his name
+    private final Map<String, String> PLAYER_NAMES;
+    // date -> every player on an in-season roster whose birthday it is (according to the birthday index)
+    private final Map<LocalDate, String> BIRTHDAYS_BY_DATE;
+
+
+    /**
+     * Class constructor
+     */
+    private BirthdayQueries(long fingerprint, List<Integer> seasons, int gameCount,
+                            Map<LocalDate, String> gamesByDate, Map<String, String> gamesByTeam,
+                            Map<String, String> gamesByPlayer, Map<String, String> playerKeys,
+                            Map<String, String> playerNames, Map<LocalDate, String> birthdaysByDate) {
+        this.FINGERPRINT = fingerprint;
+        this.LOADED_AT_MILLIS = System.currentTimeMillis();
+        this.SEASONS = List.copyOf(seasons);
+        this.GAME_COUNT = gameCount;
+        this.GAMES_BY_DATE = Collections.unmodifiableMap(gamesByDate);
+        this.GAMES_BY_TEAM = Collections.unmodifiableMap(gamesByTeam);
+        this.GAMES_BY_PLAYER = Collections.unmodifiableMap(gamesByPlayer);
+        this.PLAYER_KEYS = Collections.unmodifiableMap(playerKeys);
+        this.PLAYER_NAMES = Collections.unmodifiableMap(playerNames);
+        this.BIRTHDAYS_BY_DATE = Collections.unmodifiableMap(birthdaysByDate);
+    }
+
+
+    /**
+     * loads every saved season (see <code>GroupedStatistics.findSeasons</code>) into memory: each month's game
+     * records (or, for a month scraped before game records were kept, its month file), and the birthday index
+     * of every month of a season with a roster saved for every team
+     * The result is never changed; to pick up newer files, load a new one.
+     * @return the loaded queries
+     * @throws IOException if a saved file cannot be read
+     */
+    public static BirthdayQueries load() throws IOException {
+        long fingerprint = fingerprint();
+        List<Integer> seasons = GroupedStatistics.findSeasons();
+
+        LinkedHashMap<LocalDate, ArrayList<String>> gamesByDate = new LinkedHashMap<>();
+        LinkedHashMap<String, ArrayList<String>> gamesByTeam = new LinkedHashMap<>();
+        LinkedHashMap<String, ArrayList<String>> gamesByPlayer = new LinkedHashMap<>();
+        HashMap<String, String> playerKeys = new HashMap<>();
+        HashMap<String, String> playerNames = new HashMap<>();
+        TreeMap<LocalDate, String> birthdaysByDate = new TreeMap<>();
+        int gameCount = 0;
+
+        // every saved game, keyed by season
+        LinkedHashMap<Integer, ArrayList<GameRecord>> seasonRecords = new LinkedHashMap<>();
+        for (int season : seasons) {
+            GameRecordStore store = new GameRecordStore(season);
+            ArrayList<GameRecord> records = new ArrayList<>();
+            for (int month : Nba.MONTHS.keySet()) {
+                Collection<GameRecord> monthRecords = store.load(month).values();
+                records.addAll(monthRecords.isEmpty() ? store.importMonthFile(month) : monthRecords);
+            }
+            seasonRecords.put(season, records);
+            for (GameRecord record : records) {
+                for (GameRecord.BirthdayBoy birthdayBoy : record.getBirthdayBoys()) {
+                    // a player is kept under his id, even in games recorded without one
+                    if (!birthdayBoy.getPlayerId().isEmpty()) {
+                        playerKeys.put(birthdayBoy.getName(), birthdayBoy.getPlayerId());
+                    }
+                }
+            }
+            addBirthdays(season, birthdaysByDate);
+        }
+
+        for (Map.Entry<Integer, ArrayList<GameRecord>> entry : seasonRecords.entrySet()) {
+            for (GameRecord record : entry.getValue()) {
+                String game = toJson(record);
+                gameCount++;
+                gamesByDate.computeIfAbsent(record.getGameDate(), d -> new ArrayList<>()).add(game);
+                LinkedHashSet<String> teams = new LinkedHashSet<>();
+                LinkedHashSet<String> players = new LinkedHashSet<>();
+                for (GameRecord.BirthdayBoy birthdayBoy : record.getBirthdayBoys()) {
+                    teams.add(birthdayBoy.getTeam());
+                    String key = birthdayBoy.getPlayerId().isEmpty() ?
+                            playerKeys.computeIfAbsent(birthdayBoy.getName(), name -> name) :
+                            birthdayBoy.getPlayerId();
+                    players.add(key);
+                    playerNames.put(key, birthdayBoy.getName());
+                }
+                for (String team : teams) {
+                    gamesByTeam.computeIfAbsent(team + " " + entry.getKey(), t -> new ArrayList<>()).add(game);
+                }
+                for (String player : players) {
+                    gamesByPlayer.computeIfAbsent(player, p -> new ArrayList<>()).add(game);
+                }
+            }
+        }
+
+        return new BirthdayQueries(fingerprint, seasons, gameCount, join(gamesByDate), join(gamesByTeam),
+                join(gamesByPlayer), playerKeys, playerNames, birthdaysByDate);
+    }
+
+    // every in-season date's birthdays, from the season's birthday index for its month
+    private static void addBirthdays(int season, Map<LocalDate, String> birthdaysByDate) {
+        Nba nba = new Nba(season);
+        for (int month : Nba.MONTHS.keySet()) {
+            // the index can only be built from a roster of every team that played that season
+            for (String team : TeamHistory.teams(season)) {
+                if (nba.findClosestRoster(team, month) == null) {
+                    return;
+                }
+            }
+            BirthdayIndex index = nba.getInSeasonTeamBirthdays(month);
+            YearMonth yearMonth = YearMonth.of(month >= 10 ? season - 1 : season, month);
+            for (int dayOfMonth = 1; dayOfMonth <= yearMonth.lengthOfMonth(); dayOfMonth++) {
+                LocalDate date = yearMonth.atDay(dayOfMonth);
+                int day = BirthdayIndex.dayOfSeason(month, dayOfMonth);
+                StringJoiner birthdays = new StringJoiner(",", "[", "]");
+                for (int team = 0; team < BirthdayIndex.teamCount(); team++) {
+                    for (int i = 0; i < index.playerCount(team, day); i++) {
+                        PlayerBirthday player = index.getPlayer(team, day, i);
+                        // the abbreviation the team went by that season, e.g., "SEA" rather than "OKC"
+                        String abbreviation = TeamHistory.abbreviation(BirthdayIndex.teamAbbreviation(team), season);
+                        birthdays.add("{\"team\":" + quote(abbreviation) +
+                                ",\"playerId\":" + quote(player.getId()) +
+                                ",\"name\":" + quote(player.getName()) +
+                                ",\"birthYear\":" + player.getBirthYear() +
+                                ",\"age\":" + (date.getYear() - player.getBirthYear()) + "}");
+                    }
+                }
+                birthdaysByDate.put(date, birthdays.toString());
+            }
+        }
+    }
+
+    private static <K> HashMap<K, String> join(Map<K, ArrayList<String>> games) {
+        HashMap<K, String> joined = new HashMap<>();
+        for (Map.Entry<K, ArrayList<String>> entry : games.entrySet()) {
+            joined.put(entry.getKey(), "[" + String.join(",", entry.getValue()) + "]");
+        }
+        return joined;
+    }
+
+
+    /**
+     * @return a number that changes whenever a file the queries are loaded from is added, removed, or rewritten
+     *         (game records, month files, and rosters, in every Season directory)
+     * @throws IOException if a Season directory cannot be listed
+     */
+    public static long fingerprint() throws IOException {
+        long fingerprint = 0;
+        for (int season : GroupedStatistics.findSeasons()) {
+            try (Stream<Path> files = Files.walk(Paths.get("Season" + season), 2)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (!file.toString().endsWith(".txt")) {
+                        continue;
+                    }
+                    // order-independent, so it doesn't matter how the directory lists its files
+                    fingerprint += Objects.hash(file.toString(), Files.getLastModifiedTime(file).toMillis(),
+                            Files.size(file));
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+
+    /**
+     * @param record a birthday game
+     * @return the game as a JSON object, e.g.,
+     *         {"date":"2023-03-01","visitor":"CHI","home":"DET","played":true,"visitorPoints":117,
+     *         "homePoints":115,"finalized":true,"birthdayBoys":[{"team":"CHI","playerId":"carusal01",
+     *         "name":"Alex Caruso","age":29,"status":"PLAYED","stats":{"mp":"20:08","pts":"8",...}}]}
+     */
+    static String toJson(GameRecord record) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"date\":").append(quote(record.getGameDate().toString()))
+                .append(",\"visitor\":").append(quote(record.getVisitor()))
+                .append(",\"home\":").append(quote(record.getHome()))
+                .append(",\"played\":").append(record.isPlayed())
+                .append(",\"visitorPoints\":").append(orNull(record.getVisitorPoints()))
+                .append(",\"homePoints\":").append(orNull(record.getHomePoints()))
+                .append(",\"finalized\":").append(record.isFinalized())
+                .append(",\"birthdayBoys\":[");
+        List<GameRecord.BirthdayBoy> birthdayBoys = record.getBirthdayBoys();
+        for (int i = 0; i < birthdayBoys.size(); i++) {
+            GameRecord.BirthdayBoy birthdayBoy = birthdayBoys.get(i);
+            StatLine stats = birthdayBoy.getStats();
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"team\":").append(quote(birthdayBoy.getTeam()))
+                    .append(",\"playerId\":").append(birthdayBoy.getPlayerId().isEmpty() ? "null" :
+                            quote(birthdayBoy.getPlayerId()))
+                    .append(",\"name\":").append(quote(birthdayBoy.getName()))
+                    .append(",\"age\":").append(birthdayBoy.getAge())
+                    .append(",\"status\":").append(quote(stats.getStatus().toString()));
+            if (stats.getStatus() == StatLine.Status.PLAYED) {
+                json.append(",\"stats\":{");
+                for (int j = 0; j < StatLine.STATS.length; j++) {
+                    json.append(j == 0 ? "" : ",").append(quote(StatLine.STATS[j])).append(':')
+                            .append(quote(stats.get(StatLine.STATS[j])));
+                }
+                json.append('}');
+            }
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+
+    // a final score as a JSON number, or null if it isn't known
+    private static String orNull(String points) {
+        return points.isEmpty() ? "null" : points;
+    }
+
+
+    /**
+     * @param text any String
+     * @return it as a JSON string, e.g., "\"Trae Young\""
+     */
+    static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            }
+            else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+
+    /**
+     * @param date e.g., 2023-03-01
+     * @return the birthday games played (or to be played) on <code>date</code>, as a JSON array
+     */
+    public String getGames(LocalDate date) {
+        return GAMES_BY_DATE.getOrDefault(date, "[]");
+    }
+
+
+    /**
+     * @param team   e.g., "ATL"
+     * @param season e.g., 2023
+     * @return the season's games in which <code>team</code> had a birthday boy, as a JSON array
+     */
+    public String getGames(String team, int season) {
+        return GAMES_BY_TEAM.getOrDefault(team + " " + season, "[]");
+    }
+
+
+    /**
+     * @param player a player's id (e.g., "youngtr01") or name (e.g., "Trae Young")
+     * @return the key his birthday games are kept under, or <code>null</code> if he's never had one
+     */
+    public String findPlayer(String player) {
+        return GAMES_BY_PLAYER.containsKey(player) ? player : PLAYER_KEYS.get(player);
+    }
+
+
+    /**
+     * @param playerKey as returned by <code>findPlayer</code>
+     * @return every game in which the player was a birthday boy, in season order, as a JSON array
+     */
+    public String getPlayerGames(String playerKey) {
+        return GAMES_BY_PLAYER.getOrDefault(playerKey, "[]");
+    }
+
+    public String getPlayerName(String playerKey) { return PLAYER_NAMES.get(playerKey); }
+
+
+    /**
+     * @param date e.g., 2023-03-01
+     * @return every player with a birthday on <code>date</code>, by team, as a JSON array (empty if it isn't
+     *         in a loaded season, or the season doesn't have every team's roster)
+     */
+    public String getBirthdays(LocalDate date) {
+        return BIRTHDAYS_BY_DATE.getOrDefault(date, "[]");
+    }
+
+    public long getFingerprint() { return FINGERPRINT; }
+
+    public long getLoadedAtMillis() { return LOADED_AT_MILLIS; }
+
+    public List<Integer> getSeasons() { return SEASONS; }
+
+    public int getGameCount() { return GAME_COUNT; }
+}
@@ -0,0 +1,205 @@
+import java.io.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class BoxScore {
+    /**
+     * maps each player's basketball-reference.com id (e.g., "youngtr01") to his whole row of the basic box
+     * score, every cell's text keyed by its <code>data-stat</code> (e.g., "pts" -> "12")
+     */
+    private final HashMap<String, HashMap<String, String>> PLAYER_ROWS;
+    // maps each player's name (e.g., "Trae Young") to his id, for birthday boys recorded without one
+    private final HashMap<String, String> PLAYER_IDS;
+    // the full-game basic tables (e.g., "box-ATL-game-basic") that had any players in them
+    private final HashSet<String> GAME_TABLES;
+
+
+    /**
+     * Class constructor
+     * @param playerRows a mapping from each player's id to his row of the box score
+     * @param playerIds  a mapping from each player's name to his id
+     * @param gameTables the full-game basic tables that had players in them
+     */
+    private BoxScore(HashMap<String, HashMap<String, String>> playerRows, HashMap<String, String> playerIds,
+                     HashSet<String> gameTables) {
+        this.PLAYER_ROWS = playerRows;
+        this.PLAYER_IDS = playerIds;
+        this.GAME_TABLES = gameTables;
+    }
+
+
+    /**
+     * retrieves the box score for a game that has already occurred, and parses every player's stat line
+     * from it at once, so that every birthday boy in the game (on either team) shares a single request
+     * @param gameDate  a LocalDate representation of the game date
+     * @param homeTeam  a String containing the home team's abbreviation, e.g., "ATL"
+     * @return the parsed box score
+     * @throws IOException
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    public static BoxScore fetch(LocalDate gameDate, String homeTeam) throws IOException, InterruptedException {
+        return parse(download(gameDate, homeTeam), gameDate);
+    }
+
+
+    /**
+     * retrieves the box score page for a game that has already occurred, without parsing it, so that the
+     * request and the parse can happen in different stages of a <code>MonthScraper</code>'s pipeline
+     * @param gameDate  a LocalDate representation of the game date
+     * @param homeTeam  a String containing the home team's abbreviation, e.g., "ATL"
+     * @return the page's contents
+     * @throws IOException
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    public static byte[] download(LocalDate gameDate, String homeTeam) throws IOException, InterruptedException {
+        try (InputStream boxScoreInputStream = PageFetcher.open(getUrl(gameDate, homeTeam),
+                CachePolicy.forBoxScorePage())) {
+            return boxScoreInputStream.readAllBytes();
+        }
+    }
+
+
+    /**
+     * parses a box score page (see <code>parse(InputStream)</code>), timing it as the game's month's
+     * "box_score_parse" stage
+     * @param page     the page's contents, e.g., from <code>download</code>
+     * @param gameDate a LocalDate representation of the game date
+     * @return the parsed box score (empty if the page can't be read)
+     */
+    public static BoxScore parse(byte[] page, LocalDate gameDate) {
+        int season = gameDate.getMonthValue() >= 10 ? gameDate.getYear() + 1 : gameDate.getYear();
+        Metrics.Timer timer = Metrics.RUN.startStage(Metrics.labels("stage", "box_score_parse",
+                "season", String.valueOf(season), "month", Nba.MONTHS.getOrDefault(gameDate.getMonthValue(), "other")));
+        try {
+            return parse(new ByteArrayInputStream(page));
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+
+    /**
+     * @param gameDate  a LocalDate representation of the game date
+     * @param homeTeam  a String containing the home team's abbreviation, e.g., "ATL"
+     * @return the game's box score page, e.g., https://www.basketball-reference.com/boxscores/202303010DET.html
+     */
+    public static String getUrl(LocalDate gameDate, String homeTeam) {
+        return "https://www.basketball-reference.com/boxscores/" +
+                gameDate.toString().replace("-", "") + "0" +
+                homeTeam + ".html";
+    }
+
+
+    /**
+     * parses every player's row out of a box score page, once, keeping every stat in it
+     * @param boxScoreInputStream the page, e.g., as fetched by <code>download</code>
+     * @return the parsed box score (empty if the page can't be read)
+     */
+    public static BoxScore parse(InputStream boxScoreInputStream) {
+        HashMap<String, HashMap<String, String>> playerRows = new HashMap<>();
+        HashMap<String, String> playerIds = new HashMap<>();
+        HashSet<String> gameTables = new HashSet<>();
+        // only the basic box scores (e.g., "box-ATL-game-basic"), not the by-quarter or advanced tables
+        TableRowReader boxScoreReader = new TableRowReader(tableId -> tableId.contains("basic"), (tableId, row) -> {
+            String href = row.getHref("player");
+            // skip header and team-total rows
+            if (href != null && href.startsWith("/players/")) {
+                String playerId = row.getPlayerId("player");
+                if (tableId.endsWith("-game-basic")) {
+                    gameTables.add(tableId);
+                }
+                if (playerRows.putIfAbsent(playerId, row.toMap()) == null) {
+                    playerIds.putIfAbsent(row.get("player"), playerId);
+                }
+            }
+        });
+        try {
+            boxScoreReader.read(boxScoreInputStream);
+        }
+        catch (Exception e) {
+            // a box score we can't read just means no stats for anyone in this game
+            return new BoxScore(new HashMap<>(), new HashMap<>(), new HashSet<>());
+        }
+        return new BoxScore(playerRows, playerIds, gameTables);
+    }
+
+
+    /**
+     * @param playerId the player's basketball-reference.com id, e.g., "youngtr01"
+     * @return the player's stat line from this game, or <code>StatLine.NONE</code> if there isn't one
+     */
+    public StatLine getStatLine(String playerId) {
+        HashMap<String, String> row = PLAYER_ROWS.get(playerId);
+        return row == null ? StatLine.NONE : parseStatLine(row);
+    }
+
+
+    /**
+     * @param playerId the player's basketball-reference.com id, e.g., "youngtr01", or an empty String if it isn't
+     *                 known (e.g., for a birthday boy imported from an old month file), to look him up by name
+     * @param player   the player's name, as a String, e.g., "Trae Young"
+     * @return the player's stat line from this game, or <code>StatLine.NONE</code> if there isn't one
+     */
+    public StatLine getStatLine(String playerId, String player) {
+        if (playerId.isEmpty()) {
+            playerId = PLAYER_IDS.get(player);
+        }
+        return playerId == null ? StatLine.NONE : getStatLine(playerId);
+    }
+
+
+    /**
+     * @param playerId the player's basketball-reference.com id, e.g., "youngtr01"
+     * @param stat     any <code>data-stat</code> in the basic box score, e.g., "pts", "stl", or "plus_minus"
+     * @return the player's value for it (e.g., "12"), or <code>null</code> if he has no such cell in this game
+     */
+    public String get(String playerId, String stat) {
+        HashMap<String, String> row = PLAYER_ROWS.get(playerId);
+        return row == null ? null : row.get(stat);
+    }
+
+
+    /**
+     * @return whether the box score had any players in it (if not, it couldn't be read)
+     */
+    public boolean isEmpty() {
+        return PLAYER_ROWS.isEmpty();
+    }
+
+
+    /**
+     * @return whether both teams' full-game tables were read (if not, e.g., the page was cut off partway through,
+     *         and shouldn't be trusted, or kept in the cache)
+     */
+    public boolean isComplete() {
+        return GAME_TABLES.size() >= 2;
+    }
+
+
+    /**
+     * @param row the player's row of the basic box score, keyed by <code>data-stat</code>
+     * @return the player's stat line (<code>StatLine.NONE</code> if he has no stats, for a reason other
+     *         than DNP or DND)
+     */
+    private static StatLine parseStatLine(HashMap<String, String> row) {
+        String reason = row.get("reason");
+        if ("Did Not Play".equals(reason)) {
+            return new StatLine(StatLine.Status.DID_NOT_PLAY, null);
+        }
+        if ("Did Not Dress".equals(reason)) {
+            return new StatLine(StatLine.Status.DID_NOT_DRESS, null);
+        }
+        String[] values = new String[StatLine.STATS.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.get(StatLine.STATS[i]);
+            if (values[i] == null) {
+                return StatLine.NONE;
+            }
+        }
+        return new StatLine(StatLine.Status.PLAYED, values);
+    }
+}
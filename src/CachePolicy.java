@@ -0,0 +1,92 @@
+import java.time.Duration;
+import java.time.LocalDate;
+
+public class CachePolicy {
+    /**
+     * for pages that can never change again (e.g., the box score of a game that has been played)
+     */
+    public static final CachePolicy IMMUTABLE = new CachePolicy(null);
+
+    // null means a cached copy never goes stale
+    private final Duration TIME_TO_LIVE;
+
+
+    /**
+     * Class constructor
+     * @param timeToLive how long a cached copy may be served before it is revalidated,
+     *                   or <code>null</code> if it never needs revalidating
+     */
+    private CachePolicy(Duration timeToLive) {
+        this.TIME_TO_LIVE = timeToLive;
+    }
+
+    public static CachePolicy timeToLive(Duration timeToLive) {
+        return new CachePolicy(timeToLive);
+    }
+
+
+    /**
+     * @param fetchedAtMillis when the cached copy was last fetched or revalidated, in epoch milliseconds
+     * @return whether the cached copy may be served without asking basketball-reference.com
+     */
+    public boolean isFresh(long fetchedAtMillis) {
+        return TIME_TO_LIVE == null ||
+                System.currentTimeMillis() - fetchedAtMillis < TIME_TO_LIVE.toMillis();
+    }
+
+
+    /**
+     * a month's schedule page stops changing once every game in it has a final score
+     * @param season      e.g., 2023
+     * @param monthNumber e.g., 10 for "October"
+     */
+    public static CachePolicy forSchedulePage(int season, int monthNumber) {
+        int year = season;
+        if (monthNumber > 6) {
+            year--;
+        }
+        // late games finish after midnight, so wait an extra day past the end of the month
+        LocalDate monthFinalized = LocalDate.of(year, monthNumber, 1).plusMonths(1).plusDays(1);
+        if (Time.today.isAfter(monthFinalized)) {
+            return IMMUTABLE;
+        }
+        return timeToLive(Duration.ofHours(6));
+    }
+
+
+    /**
+     * box scores are only requested for games that have already been played, so they never change
+     * (a page that turns out to be cut off is evicted by whatever parses it; see <code>PageFetcher.evict</code>)
+     */
+    public static CachePolicy forBoxScorePage() {
+        return IMMUTABLE;
+    }
+
+
+    /**
+     * a team's roster page stops changing once its season is over
+     * @param season e.g., 2023
+     */
+    public static CachePolicy forTeamPage(int season) {
+        if (isSeasonOver(season)) {
+            return IMMUTABLE;
+        }
+        return timeToLive(Duration.ofDays(1));
+    }
+
+
+    /**
+     * the league page (e.g., league average FG%) stops changing once its season is over
+     * @param season e.g., 2023
+     */
+    public static CachePolicy forLeaguePage(int season) {
+        if (isSeasonOver(season)) {
+            return IMMUTABLE;
+        }
+        return timeToLive(Duration.ofDays(1));
+    }
+
+    private static boolean isSeasonOver(int season) {
+        return Time.today.isAfter(LocalDate.of(season, 6, 30));
+    }
+}
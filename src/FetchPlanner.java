@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class FetchPlanner {
+    /**
+     * the kinds of pages a run requests, in the order a plan puts them: schedule pages first (they decide
+     * which box scores are needed), then box scores, then rosters and league pages
+     */
+    public enum Kind { SCHEDULE, BOX_SCORE, ROSTER, LEAGUE }
+
+    // for a month whose schedule page isn't cached yet, so its birthday games can't be counted
+    // (about what a month of the checked-in seasons needed)
+    private static final int ESTIMATED_BOX_SCORES_PER_MONTH = 12;
+
+    private final List<Integer> SEASONS;
+    private final PageCache CACHE;
+    private final RequestScheduler SCHEDULER;
+
+    private final ArrayList<PlannedFetch> fetches = new ArrayList<>();
+    private final HashSet<String> plannedUrls = new HashSet<>();
+    private int duplicates;
+    private int cached;
+    private int finalized;
+    private int monthsWithoutSchedules;
+    private int monthsWithSchedules;
+    private int boxScoresInMonthsWithSchedules;
+
+
+    /**
+     * Class constructor
+     * @param seasons   the NBA seasons a run would (re)build, e.g., [2022, 2023]
+     * @param cache     where pages the run won't have to request may already be, e.g., <code>PageCache.SHARED</code>
+     * @param scheduler the request budget the run's requests will be paced by
+     */
+    public FetchPlanner(List<Integer> seasons, PageCache cache, RequestScheduler scheduler) {
+        this.SEASONS = new ArrayList<>(seasons);
+        this.CACHE = cache;
+        this.SCHEDULER = scheduler;
+    }
+
+
+    /**
+     * a page the run will request
+     */
+    public static class PlannedFetch {
+        private final Kind KIND;
+        private final int SEASON;
+        private final String URL;
+
+        private PlannedFetch(Kind kind, int season, String url) {
+            this.KIND = kind;
+            this.SEASON = season;
+            this.URL = url;
+        }
+
+        public Kind getKind() { return KIND; }
+
+        public int getSeason() { return SEASON; }
+
+        public String getUrl() { return URL; }
+    }
+
+
+    /**
+     * builds the set of requests an unattended run (e.g., a <code>Backfill</code>) of the seasons would make,
+     * from what <code>MonthChecker</code> and <code>TeamChecker</code> find saved locally:
+     *      a schedule page for every missing or partial month,
+     *      a box score for every played birthday game in those months that isn't finalized (counted from the
+     *      cached schedule page, or estimated if there isn't one yet),
+     *      every page waiting in the season's <code>RetryQueue</code>,
+     *      every team's page if some team has no roster saved, and
+     *      the league page.
+     * Duplicates and pages still fresh in the cache are dropped, and the rest are ordered by <code>Kind</code>.
+     * Nothing is fetched, and nothing is written.
+     * @return the requests, in the order of <code>Kind</code> (then season, then month)
+     * @throws IOException if a saved file or cached page cannot be read
+     */
+    public List<PlannedFetch> plan() throws IOException {
+        for (int season : SEASONS) {
+            planSeason(season);
+        }
+        fetches.sort(Comparator.comparing(PlannedFetch::getKind));
+        return fetches;
+    }
+
+    private void planSeason(int season) throws IOException {
+        Path seasonDirectory = Paths.get("Season" + season);
+        // the checkers would create the directories that are missing, so they're only asked about ones that exist
+        List<Integer> months = new ArrayList<>(Nba.MONTHS.keySet());
+        if (Files.isDirectory(seasonDirectory)) {
+            MonthChecker mc = new MonthChecker(season);
+            mc.setMissingMonths();
+            mc.setPartialMonths();
+            mc.setAllIncompleteMonthsToFetch();
+            months = mc.getMonthsToFetch();
+        }
+        boolean rostersNeeded = true;
+        if (Files.isDirectory(seasonDirectory.resolve("TeamRosters"))) {
+            TeamChecker tc = new TeamChecker(season);
+            tc.setAllTeamRosters();
+            tc.setNewWebScrapeNeededIfMissing();
+            rostersNeeded = tc.isNewWebScrapeNeeded();
+        }
+
+        Nba nba = new Nba(season);
+        GameRecordStore store = new GameRecordStore(season);
+        for (int month : months) {
+            String schedulePage = MonthScraper.getSchedulePage(season, month);
+            add(Kind.SCHEDULE, season, schedulePage, CachePolicy.forSchedulePage(season, month));
+
+            // a month's box scores can only be counted from its schedule, using every team's saved roster
+            PageCache.Entry schedule = CACHE == null ? null : CACHE.lookup(schedulePage);
+            if (schedule == null || rostersNeeded) {
+                monthsWithoutSchedules++;
+                continue;
+            }
+            ArrayList<ScheduleGame> games = new ArrayList<>();
+            try (InputStream scheduleInputStream = schedule.open()) {
+                ScheduleGame.parse(scheduleInputStream, games::add);
+            }
+            // legacy roster files are only converted in memory, since a plan writes nothing
+            MonthScraper ms = new MonthScraper(season, nba.getInSeasonTeamBirthdays(month, false));
+            ArrayList<String> boxScores = ms.getBoxScoresToFetch(games, store.load(month));
+            finalized += ms.getBoxScoresToFetch(games, new LinkedHashMap<>()).size() - boxScores.size();
+            monthsWithSchedules++;
+            boxScoresInMonthsWithSchedules += boxScores.size();
+            for (String boxScore : boxScores) {
+                add(Kind.BOX_SCORE, season, boxScore, CachePolicy.forBoxScorePage());
+            }
+        }
+
+        for (String url : new RetryQueue(season).getQueuedUrls()) {
+            if (PageFetcher.pageType(url).equals("team")) {
+                add(Kind.ROSTER, season, url, CachePolicy.forTeamPage(season));
+            }
+            else {
+                add(Kind.BOX_SCORE, season, url, CachePolicy.forBoxScorePage());
+            }
+        }
+
+        if (rostersNeeded) {
+            TeamScraper ts = new TeamScraper(season);
+            for (String team : TeamHistory.teams(season)) {
+                add(Kind.ROSTER, season, ts.getTeamPage(team), CachePolicy.forTeamPage(season));
+            }
+        }
+
+        add(Kind.LEAGUE, season, new Statistics(season).getLeaguePage(), CachePolicy.forLeaguePage(season));
+    }
+
+    private void add(Kind kind, int season, String url, CachePolicy policy) throws IOException {
+        if (!plannedUrls.add(url)) {
+            duplicates++;
+            return;
+        }
+        PageCache.Entry entry = CACHE == null ? null : CACHE.lookup(url);
+        if (entry != null && policy.isFresh(entry.getFetchedAtMillis())) {
+            cached++;
+            return;
+        }
+        fetches.add(new PlannedFetch(kind, season, url));
+    }
+
+
+    /**
+     * @return about how many box scores the months without a cached schedule page will add
+     *         (at the rate of the months with one, if there are any)
+     */
+    public int getEstimatedBoxScores() {
+        if (monthsWithSchedules == 0) {
+            return monthsWithoutSchedules * ESTIMATED_BOX_SCORES_PER_MONTH;
+        }
+        return (int) Math.round((double) boxScoresInMonthsWithSchedules / monthsWithSchedules * monthsWithoutSchedules);
+    }
+
+
+    /**
+     * @return how long the request budget will spread the planned (and estimated) requests over
+     */
+    public Duration getProjectedDuration() {
+        return SCHEDULER.projectDuration(fetches.size() + getEstimatedBoxScores());
+    }
+
+
+    /**
+     * prints the plan's request counts (by kind) and projected wall-clock time, after <code>plan</code>
+     * @param listPages whether to also print every planned page, in the order it would be requested
+     */
+    public void printPlan(boolean listPages) {
+        EnumMap<Kind, Integer> counts = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, 0);
+        }
+        for (PlannedFetch fetch : fetches) {
+            counts.merge(fetch.getKind(), 1, Integer::sum);
+            if (listPages) {
+                System.out.println("   " + fetch.getSeason() + " " + fetch.getKind().toString().toLowerCase() +
+                        " " + fetch.getUrl());
+            }
+        }
+
+        String seasons = SEASONS.size() == 1 ? "the " + SEASONS.get(0) + " NBA season" :
+                "the " + SEASONS.get(0) + " through " + SEASONS.get(SEASONS.size() - 1) + " NBA seasons";
+        System.out.println("Requests needed for " + seasons + ":");
+        System.out.println(" - " + counts.get(Kind.SCHEDULE) + " schedule pages");
+        System.out.print(" - " + counts.get(Kind.BOX_SCORE) + " box scores");
+        if (monthsWithoutSchedules > 0) {
+            System.out.print(", plus about " + getEstimatedBoxScores() + " more for the " + monthsWithoutSchedules +
+                    " months whose schedules (or rosters) haven't been fetched yet");
+        }
+        System.out.println();
+        System.out.println(" - " + counts.get(Kind.ROSTER) + " team roster pages");
+        System.out.println(" - " + counts.get(Kind.LEAGUE) + " league pages");
+        System.out.println("(Left out: " + duplicates + " duplicate requests, " + cached +
+                " pages still fresh in the page cache, and " + finalized + " games already finalized.)");
+
+        int requests = fetches.size() + getEstimatedBoxScores();
+        System.out.println("That's about " + requests + " requests, which the request budget (" + SCHEDULER +
+                ") spreads over about " + Metrics.formatDuration(getProjectedDuration().toNanos()) + ".");
+    }
+}
@@ -0,0 +1,153 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameRecord {
+    private final LocalDate GAME_DATE;
+    private final String VISITOR;
+    private final String HOME;
+    // whether the game had already been played when it was recorded (if so, the score is known)
+    private final boolean PLAYED;
+    private final String VISITOR_POINTS;
+    private final String HOME_POINTS;
+    // whether every birthday boy's stats have been retrieved, so the game never needs to be fetched again
+    private final boolean FINALIZED;
+    private final ArrayList<BirthdayBoy> BIRTHDAY_BOYS;
+
+
+    /**
+     * Class constructor
+     * @param gameDate      a LocalDate representation of the game date
+     * @param visitor       e.g., "ATL"
+     * @param home          e.g., "BOS"
+     * @param played        whether the game has been played
+     * @param visitorPoints the visiting team's final score, or an empty String if it isn't known
+     * @param homePoints    the home team's final score, or an empty String if it isn't known
+     * @param finalized     whether the game's results and stats are complete
+     * @param birthdayBoys  the game's birthday boys, visitors first
+     */
+    public GameRecord(LocalDate gameDate, String visitor, String home, boolean played,
+                      String visitorPoints, String homePoints, boolean finalized, List<BirthdayBoy> birthdayBoys) {
+        this.GAME_DATE = gameDate;
+        this.VISITOR = visitor;
+        this.HOME = home;
+        this.PLAYED = played;
+        this.VISITOR_POINTS = visitorPoints;
+        this.HOME_POINTS = homePoints;
+        this.FINALIZED = finalized;
+        this.BIRTHDAY_BOYS = new ArrayList<>(birthdayBoys);
+    }
+
+
+    /**
+     * a player who had a birthday the day before the game, and how he did in it
+     */
+    public static class BirthdayBoy {
+        private final String TEAM;
+        private final String PLAYER_ID;
+        private final String NAME;
+        private final int AGE;
+        private final StatLine STATS;
+
+        /**
+         * @param team     the player's team, e.g., "ATL"
+         * @param playerId his basketball-reference.com id, e.g., "youngtr01", or an empty String if it isn't
+         *                 known (e.g., he was imported from an old month file)
+         * @param name     e.g., "Trae Young"
+         * @param age      the age he turned
+         * @param stats    his stats from the game (<code>StatLine.NONE</code> if there aren't any yet)
+         */
+        public BirthdayBoy(String team, String playerId, String name, int age, StatLine stats) {
+            this.TEAM = team;
+            this.PLAYER_ID = playerId;
+            this.NAME = name;
+            this.AGE = age;
+            this.STATS = stats;
+        }
+
+        public String getTeam() { return TEAM; }
+
+        public String getPlayerId() { return PLAYER_ID; }
+
+        public String getName() { return NAME; }
+
+        public int getAge() { return AGE; }
+
+        public StatLine getStats() { return STATS; }
+    }
+
+
+    /**
+     * @return a key identifying the game within its month, e.g., "2023-03-01 CHI DET"
+     */
+    public String getKey() {
+        return getKey(GAME_DATE, VISITOR, HOME);
+    }
+
+    public static String getKey(LocalDate gameDate, String visitor, String home) {
+        return gameDate + " " + visitor + " " + home;
+    }
+
+
+    /**
+     * @return the game as it appears in a month file, e.g.,
+     *              (blank line)
+     *              1: CHI at DET, 117-115
+     *              CHI: Alex Caruso turned 29 (20:08 mp, 8 pts, 2/5 fga, 1 reb, 2 ast)
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append(System.lineSeparator())
+                .append(GAME_DATE.getDayOfMonth()).append(": ")
+                .append(VISITOR).append(" at ").append(HOME);
+        if (PLAYED) {
+            out.append(", ").append(VISITOR_POINTS).append("-").append(HOME_POINTS);
+        }
+        out.append(System.lineSeparator());
+
+        // one line per team with birthday boys
+        String turn = PLAYED ? " turned " : " turns ";
+        for (int i = 0; i < BIRTHDAY_BOYS.size(); i++) {
+            BirthdayBoy birthdayBoy = BIRTHDAY_BOYS.get(i);
+            boolean firstOnTeam = i == 0 || !BIRTHDAY_BOYS.get(i - 1).TEAM.equals(birthdayBoy.TEAM);
+            boolean lastOnTeam = i == BIRTHDAY_BOYS.size() - 1 || !BIRTHDAY_BOYS.get(i + 1).TEAM.equals(birthdayBoy.TEAM);
+            if (firstOnTeam) {
+                out.append(birthdayBoy.TEAM).append(": ");
+            }
+            out.append(birthdayBoy.NAME).append(turn).append(birthdayBoy.AGE).append(birthdayBoy.STATS);
+            out.append(lastOnTeam ? System.lineSeparator() : ", ");
+        }
+        return out.toString();
+    }
+
+    /**
+     * @param boxScore the game's box score, e.g., fetched again after the first request for it failed
+     * @return this game with every birthday boy's stats taken from <code>boxScore</code> (finalized if the
+     *         score is known and both teams' tables could be read)
+     */
+    public GameRecord withBoxScore(BoxScore boxScore) {
+        ArrayList<BirthdayBoy> birthdayBoys = new ArrayList<>();
+        for (BirthdayBoy birthdayBoy : BIRTHDAY_BOYS) {
+            birthdayBoys.add(new BirthdayBoy(birthdayBoy.TEAM, birthdayBoy.PLAYER_ID, birthdayBoy.NAME,
+                    birthdayBoy.AGE, boxScore.getStatLine(birthdayBoy.PLAYER_ID, birthdayBoy.NAME)));
+        }
+        boolean finalized = PLAYED && !HOME_POINTS.isEmpty() && boxScore.isComplete();
+        return new GameRecord(GAME_DATE, VISITOR, HOME, PLAYED, VISITOR_POINTS, HOME_POINTS, finalized, birthdayBoys);
+    }
+
+    public LocalDate getGameDate() { return GAME_DATE; }
+
+    public String getVisitor() { return VISITOR; }
+
+    public String getHome() { return HOME; }
+
+    public boolean isPlayed() { return PLAYED; }
+
+    public String getVisitorPoints() { return VISITOR_POINTS; }
+
+    public String getHomePoints() { return HOME_POINTS; }
+
+    public boolean isFinalized() { return FINALIZED; }
+
+    public List<BirthdayBoy> getBirthdayBoys() { return BIRTHDAY_BOYS; }
+}
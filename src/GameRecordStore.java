@@ -0,0 +1,422 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class GameRecordStore {
+    // the lines of a month file written before game records were kept (see GameRecord.render)
+    private static final Pattern GAME_LINE = Pattern.compile("(\\d+): (\\S+) at (\\S+?)(?:, (\\d*)-(\\d*))?");
+    private static final Pattern TEAM_LINE = Pattern.compile("(\\S+): (.*)");
+    private static final Pattern BIRTHDAY_BOY = Pattern.compile("(.+?) (turned|turns) (\\d+)(?: \\(([^)]*)\\))?(?:, |$)");
+    private static final Pattern PLAYED_STATS =
+            Pattern.compile("(\\S+) mp, (\\S+) pts, (\\S+)/(\\S+) fga, (\\S+) reb, (\\S+) ast");
+    private final int SEASON;
+
+
+    /**
+     * Class constructor
+     * @param season the NBA season, as an <code>int</code> (e.g., 2023)
+     */
+    public GameRecordStore(int season) {
+        this.SEASON = season;
+    }
+
+
+    /**
+     * @param monthNumber e.g., 10 for "October"
+     * @return where the month's game records are kept, e.g., Season2023/GameRecords/October.txt
+     */
+    public Path getPath(int monthNumber) {
+        return Paths.get("Season" + SEASON, "GameRecords", Nba.MONTHS.get(monthNumber) + ".txt");
+    }
+
+
+    /**
+     * @param monthNumber e.g., 10 for "October"
+     * @return where the month's <code>BirthdayGameFile</code> is kept, e.g., Season2023/GameRecords/October.bin
+     */
+    public Path getBirthdayGamePath(int monthNumber) {
+        return Paths.get("Season" + SEASON, "GameRecords", Nba.MONTHS.get(monthNumber) + ".bin");
+    }
+
+
+    /**
+     * @param monthNumber e.g., 10 for "October"
+     * @return where the games of a month still being scraped are journaled,
+     *         e.g., Season2023/GameRecords/October.journal
+     */
+    public Path getJournalPath(int monthNumber) {
+        return Paths.get("Season" + SEASON, "GameRecords", Nba.MONTHS.get(monthNumber) + ".journal");
+    }
+
+
+    /**
+     * finds the month's <code>BirthdayGameFile</code>, first converting the month file if it was written
+     * before game records were kept (the converted file keeps the month file's last-modified time, so the month
+     * is still reported as complete/incomplete according to when its games were scraped), or rewriting the
+     * birthday-game file if an older version wrote it
+     * @param monthNumber e.g., 10 for "October"
+     * @return the birthday-game file, or <code>null</code> if the month has no games recorded at all
+     * @throws IOException if the month file cannot be read or converted
+     */
+    public Path findBirthdayGamePath(int monthNumber) throws IOException {
+        Path birthdayGamePath = getBirthdayGamePath(monthNumber);
+        if (Files.exists(birthdayGamePath)) {
+            if (!BirthdayGameFile.isCurrent(birthdayGamePath)) {
+                // from the game records it was written alongside, if there are any, keeping its last-modified time
+                FileTime lastModified = Files.getLastModifiedTime(birthdayGamePath);
+                List<GameRecord> records = Files.exists(getPath(monthNumber)) ?
+                        new ArrayList<>(load(monthNumber).values()) : importMonthFile(monthNumber);
+                BirthdayGameFile.write(birthdayGamePath, records);
+                Files.setLastModifiedTime(birthdayGamePath, lastModified);
+            }
+            return birthdayGamePath;
+        }
+        Path monthPath = Paths.get("Season" + SEASON, Nba.MONTHS.get(monthNumber) + ".txt");
+        if (!Files.exists(monthPath)) {
+            return null;
+        }
+        BirthdayGameFile.write(birthdayGamePath, importMonthFile(monthNumber));
+        Files.setLastModifiedTime(birthdayGamePath, Files.getLastModifiedTime(monthPath));
+        return birthdayGamePath;
+    }
+
+
+    /**
+     * reads back every birthday game recorded for a month
+     * The file has one tab-separated line per game, followed by one line per birthday boy:
+     *      G   gameDate    visitor home    played  visitorPoints   homePoints  finalized
+     *      B   team    name    age status  mp  pts fg  fga trb ast playerId
+     * (records saved before player ids were kept have no playerId column, and are read back without one)
+     * @param monthNumber e.g., 10 for "October"
+     * @return the month's game records, keyed by <code>GameRecord.getKey()</code>, in the order they were saved
+     *         (empty if the month has never been recorded)
+     * @throws IOException if the file cannot be read
+     */
+    public LinkedHashMap<String, GameRecord> load(int monthNumber) throws IOException {
+        LinkedHashMap<String, GameRecord> records = new LinkedHashMap<>();
+        Path path = getPath(monthNumber);
+        if (!Files.exists(path)) {
+            return records;
+        }
+        read(TabFileReader.map(path), records);
+        return records;
+    }
+
+    // adds every game in the lines (in the format described in load) to records, replacing any with the same key
+    private static void read(TabFileReader lines, LinkedHashMap<String, GameRecord> records) {
+        String[] game = null;
+        ArrayList<GameRecord.BirthdayBoy> birthdayBoys = new ArrayList<>();
+        while (lines.nextLine()) {
+            if (lines.fieldEquals(0, "G")) {
+                if (game != null) {
+                    addRecord(records, game, birthdayBoys);
+                }
+                game = new String[lines.fieldCount()];
+                for (int i = 0; i < game.length; i++) {
+                    game[i] = lines.getString(i);
+                }
+                birthdayBoys.clear();
+            }
+            else if (lines.fieldEquals(0, "B")) {
+                birthdayBoys.add(parseBirthdayBoy(lines));
+            }
+        }
+        if (game != null) {
+            addRecord(records, game, birthdayBoys);
+        }
+    }
+
+
+    /**
+     * appends a game to the month's journal as soon as it's resolved, so that if the run dies before the month is
+     * saved, the next run can pick up where this one left off (see <code>loadJournal</code>)
+     * Each game is written (in the format described in <code>load</code>, followed by an "E" line that marks
+     * it complete) and forced to disk before this returns.
+     * @param monthNumber e.g., 10 for "October"
+     * @param record      the game, with whatever stats could be fetched for it
+     * @throws IOException if the journal cannot be written
+     */
+    public void journal(int monthNumber, GameRecord record) throws IOException {
+        Path path = getJournalPath(monthNumber);
+        Files.createDirectories(path.getParent());
+        ByteBuffer entry = ByteBuffer.wrap((format(record) + "E\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (entry.hasRemaining()) {
+                journal.write(entry);
+            }
+            journal.force(false);
+        }
+    }
+
+
+    /**
+     * reads back the games journaled by a run that didn't get to save the month
+     * A game cut off partway through being journaled (the run died while writing it) is left out.
+     * @param monthNumber e.g., 10 for "October"
+     * @return the journaled games, keyed by <code>GameRecord.getKey()</code> (the last entry for a game wins),
+     *         or an empty map if there's no journal
+     * @throws IOException if the journal cannot be read
+     */
+    public LinkedHashMap<String, GameRecord> loadJournal(int monthNumber) throws IOException {
+        LinkedHashMap<String, GameRecord> records = new LinkedHashMap<>();
+        Path path = getJournalPath(monthNumber);
+        if (!Files.exists(path)) {
+            return records;
+        }
+        // only the entries up to the last "E" line
+        byte[] journal = Files.readAllBytes(path);
+        int end = journal.length - 2;
+        while (end >= 0 && !isEndLine(journal, end)) {
+            end--;
+        }
+        if (end == -1) {
+            return records;
+        }
+        read(TabFileReader.wrap(journal, end), records);
+        return records;
+    }
+
+    // whether an "E" line starts at the index
+    private static boolean isEndLine(byte[] journal, int index) {
+        return journal[index] == 'E' && journal[index + 1] == '\n' && (index == 0 || journal[index - 1] == '\n');
+    }
+
+
+    /**
+     * removes the month's journal, once the games in it have been saved
+     * @param monthNumber e.g., 10 for "October"
+     * @throws IOException if the journal cannot be deleted
+     */
+    public void deleteJournal(int monthNumber) throws IOException {
+        Files.deleteIfExists(getJournalPath(monthNumber));
+    }
+
+
+    /**
+     * replaces a month's game records (and its <code>BirthdayGameFile</code>, which statistics are tallied from)
+     * @param monthNumber e.g., 10 for "October"
+     * @param records     every birthday game in the month, in schedule order
+     * @throws IOException if the file cannot be written
+     */
+    public void save(int monthNumber, List<GameRecord> records) throws IOException {
+        Path path = getPath(monthNumber);
+        Files.createDirectories(path.getParent());
+        StringBuilder contents = new StringBuilder();
+        for (GameRecord record : records) {
+            contents.append(format(record));
+        }
+        publish(path, contents.toString().getBytes(StandardCharsets.UTF_8));
+        BirthdayGameFile.write(getBirthdayGamePath(monthNumber), records);
+    }
+
+
+    /**
+     * replaces a file all at once: the contents are written to a temporary file beside it, forced to disk, and
+     * then renamed over it, so a run that dies partway through leaves either the old file or the new one
+     * (never an empty or half-written one, which <code>MonthChecker</code> would take for a scraped month)
+     * @param path     e.g., Season2023/October.txt
+     * @param contents the file's new contents
+     * @throws IOException if the file cannot be written
+     */
+    public static void publish(Path path, byte[] contents) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(contents);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+
+    /**
+     * fills in the stats of a game whose box score couldn't be fetched when its month was scraped, in its game
+     * records, its <code>BirthdayGameFile</code>, and the month file (e.g., Season2023/October.txt), without
+     * touching the month's other games
+     * The files keep their last-modified times, so the month is still reported as complete/incomplete according
+     * to when it was scraped.
+     * @param monthNumber e.g., 10 for "October"
+     * @param key         the game's <code>GameRecord.getKey()</code>, e.g., "2023-03-01 CHI DET"
+     * @param boxScore    the game's box score
+     * @return whether the game was patched (it isn't if it's no longer recorded, or was finalized since)
+     * @throws IOException if the files cannot be read or written
+     */
+    public boolean patch(int monthNumber, String key, BoxScore boxScore) throws IOException {
+        LinkedHashMap<String, GameRecord> records = load(monthNumber);
+        GameRecord record = records.get(key);
+        if (record == null || record.isFinalized()) {
+            return false;
+        }
+        records.put(key, record.withBoxScore(boxScore));
+
+        Path monthPath = Paths.get("Season" + SEASON, Nba.MONTHS.get(monthNumber) + ".txt");
+        Path[] paths = {getPath(monthNumber), getBirthdayGamePath(monthNumber), monthPath};
+        FileTime[] lastModifiedTimes = new FileTime[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            lastModifiedTimes[i] = Files.exists(paths[i]) ? Files.getLastModifiedTime(paths[i]) : null;
+        }
+
+        save(monthNumber, new ArrayList<>(records.values()));
+        StringBuilder monthFileContents = new StringBuilder();
+        for (GameRecord monthRecord : records.values()) {
+            monthFileContents.append(monthRecord.render());
+        }
+        // written the way MonthScraper writes it, in UTF-8 (which importMonthFile reads back)
+        publish(monthPath, monthFileContents.toString().getBytes(StandardCharsets.UTF_8));
+
+        for (int i = 0; i < paths.length; i++) {
+            if (lastModifiedTimes[i] != null) {
+                Files.setLastModifiedTime(paths[i], lastModifiedTimes[i]);
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * @return the record's lines, in the format described in <code>load</code>
+     */
+    public static String format(GameRecord record) {
+        StringBuilder out = new StringBuilder();
+        out.append("G\t").append(record.getGameDate())
+                .append('\t').append(record.getVisitor())
+                .append('\t').append(record.getHome())
+                .append('\t').append(record.isPlayed() ? 1 : 0)
+                .append('\t').append(record.getVisitorPoints())
+                .append('\t').append(record.getHomePoints())
+                .append('\t').append(record.isFinalized() ? 1 : 0)
+                .append('\n');
+        for (GameRecord.BirthdayBoy birthdayBoy : record.getBirthdayBoys()) {
+            StatLine stats = birthdayBoy.getStats();
+            out.append("B\t").append(birthdayBoy.getTeam())
+                    .append('\t').append(birthdayBoy.getName())
+                    .append('\t').append(birthdayBoy.getAge())
+                    .append('\t').append(stats.getStatus());
+            for (String stat : StatLine.STATS) {
+                String value = stats.get(stat);
+                out.append('\t').append(value == null ? "" : value);
+            }
+            out.append('\t').append(birthdayBoy.getPlayerId());
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * reads the games back out of a month file (e.g., Season2023/October.txt) written before the month's
+     * game records were kept, so that its statistics can still be tallied from a <code>BirthdayGameFile</code>
+     * None of the games are finalized, so the next time the month is scraped, they'll all be fetched again.
+     * @param monthNumber e.g., 10 for "October"
+     * @return the month's games, in the order they appear in the file (empty if there's no month file)
+     * @throws IOException if the file cannot be read
+     */
+    public ArrayList<GameRecord> importMonthFile(int monthNumber) throws IOException {
+        ArrayList<GameRecord> records = new ArrayList<>();
+        Path path = Paths.get("Season" + SEASON, Nba.MONTHS.get(monthNumber) + ".txt");
+        if (!Files.exists(path)) {
+            return records;
+        }
+        int year = monthNumber >= 10 ? SEASON - 1 : SEASON;
+
+        Matcher game = null;
+        ArrayList<GameRecord.BirthdayBoy> birthdayBoys = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            Matcher gameLine = GAME_LINE.matcher(line);
+            Matcher teamLine = TEAM_LINE.matcher(line);
+            if (gameLine.matches()) {
+                if (game != null) {
+                    records.add(importRecord(year, monthNumber, game, birthdayBoys));
+                }
+                game = gameLine;
+                birthdayBoys.clear();
+            }
+            else if (game != null && teamLine.matches()) {
+                Matcher birthdayBoy = BIRTHDAY_BOY.matcher(teamLine.group(2));
+                while (birthdayBoy.find()) {
+                    birthdayBoys.add(new GameRecord.BirthdayBoy(teamLine.group(1), "", birthdayBoy.group(1),
+                            Integer.parseInt(birthdayBoy.group(3)), importStatLine(birthdayBoy.group(4))));
+                }
+            }
+        }
+        if (game != null) {
+            records.add(importRecord(year, monthNumber, game, birthdayBoys));
+        }
+        return records;
+    }
+
+    private static GameRecord importRecord(int year, int monthNumber, Matcher game,
+                                           List<GameRecord.BirthdayBoy> birthdayBoys) {
+        boolean played = game.group(4) != null;
+        return new GameRecord(LocalDate.of(year, monthNumber, Integer.parseInt(game.group(1))),
+                game.group(2), game.group(3), played,
+                played ? game.group(4) : "", played ? game.group(5) : "", false, birthdayBoys);
+    }
+
+    // e.g., "20:08 mp, 8 pts, 2/5 fga, 1 reb, 2 ast", "DNP", "DND", or null
+    private static StatLine importStatLine(String stats) {
+        if (stats == null) {
+            return StatLine.NONE;
+        }
+        if (stats.equals("DNP")) {
+            return new StatLine(StatLine.Status.DID_NOT_PLAY, null);
+        }
+        if (stats.equals("DND")) {
+            return new StatLine(StatLine.Status.DID_NOT_DRESS, null);
+        }
+        Matcher played = PLAYED_STATS.matcher(stats);
+        if (!played.matches()) {
+            return StatLine.NONE;
+        }
+        String[] values = new String[StatLine.STATS.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = played.group(i + 1);
+        }
+        return new StatLine(StatLine.Status.PLAYED, values);
+    }
+
+    private static void addRecord(LinkedHashMap<String, GameRecord> records, String[] game,
+                                  List<GameRecord.BirthdayBoy> birthdayBoys) {
+        GameRecord record = new GameRecord(LocalDate.parse(game[1]), game[2], game[3],
+                game[4].equals("1"), game[5], game[6], game[7].equals("1"), birthdayBoys);
+        records.put(record.getKey(), record);
+    }
+
+    private static GameRecord.BirthdayBoy parseBirthdayBoy(TabFileReader line) {
+        StatLine.Status status = StatLine.Status.valueOf(line.getString(4));
+        String[] values = null;
+        if (status == StatLine.Status.PLAYED) {
+            values = new String[StatLine.STATS.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = line.getString(5 + i);
+            }
+        }
+        StatLine stats = status == StatLine.Status.NO_STATS ? StatLine.NONE : new StatLine(status, values);
+        int playerIdField = 5 + StatLine.STATS.length;
+        String playerId = line.fieldCount() > playerIdField ? line.getString(playerIdField) : "";
+        return new GameRecord.BirthdayBoy(line.getString(1), playerId, line.getString(2), line.getInt(3), stats);
+    }
+}
@@ -0,0 +1,411 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class GroupedStatistics {
+    /**
+     * the ways birthday-game results can be broken down
+     * (ALL puts every birthday game in a single group, e.g., for Statistics.txt)
+     */
+    public enum Grouping { ALL, AGE, TEAM, HOME_AWAY, MONTH, SEASON }
+
+    // accumulator columns, one set per group
+    public static final int WINS = 0;
+    public static final int LOSSES = 1;
+    // birthday boys who played, and their totals
+    public static final int APPEARANCES = 2;
+    public static final int SECONDS_PLAYED = 3;
+    public static final int POINTS = 4;
+    public static final int REBOUNDS = 5;
+    public static final int ASSISTS = 6;
+    public static final int FG = 7;
+    public static final int FGA = 8;
+    // birthday boys who didn't play (DNP or DND)
+    public static final int DID_NOT_PLAY = 9;
+    private static final int COLUMNS = 10;
+
+    // seasons are grouped by their offset from this one, to keep the SEASON accumulators small
+    private static final int FIRST_SEASON = 1947;
+
+    // team abbreviations are numbered as they're first seen, since old seasons have teams (e.g., "SEA")
+    // that BirthdayIndex doesn't know about
+    private static final ConcurrentHashMap<String, Integer> TEAM_NUMBERS = new ConcurrentHashMap<>();
+    private static final List<String> TEAMS = new CopyOnWriteArrayList<>();
+
+    private static final Pattern SEASON_DIRECTORY = Pattern.compile("Season(\\d+)");
+
+    private final List<Part> PARTS;
+
+
+    /**
+     * one month's <code>BirthdayGameFile</code>, the unit the aggregation work is split into
+     */
+    public static class Part {
+        private final int SEASON;
+        private final int MONTH_NUMBER;
+        private final Path PATH;
+
+        public Part(int season, int monthNumber, Path path) {
+            this.SEASON = season;
+            this.MONTH_NUMBER = monthNumber;
+            this.PATH = path;
+        }
+    }
+
+
+    /**
+     * per-group accumulators for one <code>Grouping</code>
+     * Group g's columns are VALUES[g * COLUMNS] through VALUES[g * COLUMNS + COLUMNS - 1].
+     */
+    public static class Totals {
+        private final Grouping GROUPING;
+        private long[] values = new long[COLUMNS];
+
+        private Totals(Grouping grouping) {
+            this.GROUPING = grouping;
+        }
+
+        private void add(int group, int column, long amount) {
+            int index = group * COLUMNS + column;
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, (group + 1) * COLUMNS));
+            }
+            values[index] += amount;
+        }
+
+        private void merge(Totals other) {
+            if (other.values.length > values.length) {
+                values = Arrays.copyOf(values, other.values.length);
+            }
+            for (int i = 0; i < other.values.length; i++) {
+                values[i] += other.values[i];
+            }
+        }
+
+        public Grouping getGrouping() { return GROUPING; }
+
+        /**
+         * @return one more than the highest group number with any birthday games
+         */
+        public int groupCount() {
+            return values.length / COLUMNS;
+        }
+
+        public long get(int group, int column) {
+            int index = group * COLUMNS + column;
+            return index < values.length ? values[index] : 0;
+        }
+
+        public boolean hasGames(int group) {
+            return get(group, WINS) + get(group, LOSSES) + get(group, APPEARANCES) + get(group, DID_NOT_PLAY) > 0;
+        }
+
+        /**
+         * @return the groups with any birthday games, in the order reports list them
+         *         (months in season order, teams alphabetically, everything else by number)
+         */
+        public List<Integer> groupsInOrder() {
+            ArrayList<Integer> groups = new ArrayList<>();
+            for (int group = 0; group < groupCount(); group++) {
+                if (hasGames(group)) {
+                    groups.add(group);
+                }
+            }
+            if (GROUPING == Grouping.MONTH) {
+                // October (10) first, then November, ..., June (6)
+                groups.sort(Comparator.comparingInt(month -> (month + 2) % 12));
+            }
+            else if (GROUPING == Grouping.TEAM) {
+                groups.sort(Comparator.comparing(this::label));
+            }
+            return groups;
+        }
+
+        /**
+         * @return the group's name in reports, e.g., "25" (AGE), "ATL" (TEAM), "home" (HOME_AWAY),
+         *         "October" (MONTH), or "2023" (SEASON)
+         */
+        public String label(int group) {
+            switch (GROUPING) {
+                case AGE:
+                    return String.valueOf(group);
+                case TEAM:
+                    return TEAMS.get(group);
+                case HOME_AWAY:
+                    return group == 1 ? "home" : "away";
+                case MONTH:
+                    return Nba.MONTHS.getOrDefault(group, String.valueOf(group));
+                case SEASON:
+                    return String.valueOf(FIRST_SEASON + group);
+                default:
+                    return "all";
+            }
+        }
+    }
+
+
+    /**
+     * Class constructor
+     * @param parts the month files to aggregate
+     */
+    public GroupedStatistics(List<Part> parts) {
+        this.PARTS = parts;
+    }
+
+
+    /**
+     * @param seasons NBA seasons, as <code>int</code>s (e.g., 2023)
+     * @return statistics over every month of those seasons with birthday games recorded
+     * @throws IOException if a month file written before game records were kept cannot be converted
+     */
+    public static GroupedStatistics forSeasons(List<Integer> seasons) throws IOException {
+        ArrayList<Part> parts = new ArrayList<>();
+        for (int season : seasons) {
+            GameRecordStore store = new GameRecordStore(season);
+            for (int monthNumber : Nba.MONTHS.keySet()) {
+                Path path = store.findBirthdayGamePath(monthNumber);
+                if (path != null) {
+                    parts.add(new Part(season, monthNumber, path));
+                }
+            }
+        }
+        return new GroupedStatistics(parts);
+    }
+
+
+    /**
+     * @return every season with a directory (e.g., Season2023) in the working directory, in order
+     */
+    public static List<Integer> findSeasons() {
+        ArrayList<Integer> seasons = new ArrayList<>();
+        File[] directories = new File(".").listFiles(File::isDirectory);
+        if (directories != null) {
+            for (File directory : directories) {
+                Matcher season = SEASON_DIRECTORY.matcher(directory.getName());
+                if (season.matches()) {
+                    seasons.add(Integer.parseInt(season.group(1)));
+                }
+            }
+        }
+        seasons.sort(null);
+        return seasons;
+    }
+
+
+    /**
+     * tallies every birthday game, once per grouping
+     * The months are split between fork-join tasks (halving the list, which is in season then month order, until
+     * each task has one month), each month is scanned once for all groupings, and the tasks' accumulators are
+     * merged as they finish.
+     * @param groupings how to break the results down
+     * @return one <code>Totals</code> per grouping, in the same order
+     */
+    public Totals[] aggregate(Grouping... groupings) {
+        if (PARTS.isEmpty()) {
+            return newTotals(groupings);
+        }
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(groupings, 0, PARTS.size()));
+    }
+
+
+    private class AggregateTask extends RecursiveTask<Totals[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Grouping[] GROUPINGS;
+        private final int FROM;
+        private final int TO;
+
+        AggregateTask(Grouping[] groupings, int from, int to) {
+            this.GROUPINGS = groupings;
+            this.FROM = from;
+            this.TO = to;
+        }
+
+        @Override
+        protected Totals[] compute() {
+            if (TO - FROM == 1) {
+                try {
+                    return aggregate(PARTS.get(FROM), GROUPINGS);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (FROM + TO) >>> 1;
+            AggregateTask first = new AggregateTask(GROUPINGS, FROM, middle);
+            first.fork();
+            Totals[] totals = new AggregateTask(GROUPINGS, middle, TO).compute();
+            Totals[] firstTotals = first.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].merge(firstTotals[i]);
+            }
+            return totals;
+        }
+    }
+
+
+    private static Totals[] aggregate(Part part, Grouping[] groupings) throws IOException {
+        Totals[] totals = newTotals(groupings);
+        BirthdayGameFile birthdayGames = BirthdayGameFile.map(part.PATH);
+        int[] keys = new int[groupings.length];
+        // the row where the current team's birthday boys (in the current game) start
+        int teamStart = 0;
+        for (int row = 0; row < birthdayGames.rowCount(); row++) {
+            if (birthdayGames.isFirstForTeam(row)) {
+                teamStart = row;
+            }
+            int visitorPoints = birthdayGames.getVisitorPoints(row);
+            int homePoints = birthdayGames.getHomePoints(row);
+            boolean played = visitorPoints >= 0 && homePoints >= 0;
+            boolean birthdayTeamWon = birthdayGames.isHome(row) ?
+                    homePoints > visitorPoints : visitorPoints > homePoints;
+            StatLine.Status status = birthdayGames.getStatus(row);
+
+            for (int i = 0; i < groupings.length; i++) {
+                keys[i] = groupOf(groupings[i], part, birthdayGames, row);
+            }
+            for (int i = 0; i < groupings.length; i++) {
+                int group = keys[i];
+                // a game's result counts once per team in each group with any of the team's birthday boys
+                if (played && !isCountedEarlier(groupings[i], part, birthdayGames, teamStart, row, group)) {
+                    totals[i].add(group, birthdayTeamWon ? WINS : LOSSES, 1);
+                }
+                if (status == StatLine.Status.PLAYED) {
+                    totals[i].add(group, APPEARANCES, 1);
+                    totals[i].add(group, SECONDS_PLAYED, birthdayGames.getSecondsPlayed(row));
+                    totals[i].add(group, POINTS, birthdayGames.getPoints(row));
+                    totals[i].add(group, REBOUNDS, birthdayGames.getRebounds(row));
+                    totals[i].add(group, ASSISTS, birthdayGames.getAssists(row));
+                    totals[i].add(group, FG, birthdayGames.getFg(row));
+                    totals[i].add(group, FGA, birthdayGames.getFga(row));
+                }
+                else if (status == StatLine.Status.DID_NOT_PLAY || status == StatLine.Status.DID_NOT_DRESS) {
+                    totals[i].add(group, DID_NOT_PLAY, 1);
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static boolean isCountedEarlier(Grouping grouping, Part part, BirthdayGameFile birthdayGames,
+                                            int teamStart, int row, int group) {
+        // a team rarely has more than two or three birthday boys in a game, so this is a short scan
+        for (int earlier = teamStart; earlier < row; earlier++) {
+            if (groupOf(grouping, part, birthdayGames, earlier) == group) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int groupOf(Grouping grouping, Part part, BirthdayGameFile birthdayGames, int row) {
+        switch (grouping) {
+            case AGE:
+                return birthdayGames.getAge(row);
+            case TEAM:
+                String team = birthdayGames.isHome(row) ? birthdayGames.getHome(row) : birthdayGames.getVisitor(row);
+                return TEAM_NUMBERS.computeIfAbsent(team, abbreviation -> {
+                    synchronized (TEAMS) {
+                        TEAMS.add(abbreviation);
+                        return TEAMS.size() - 1;
+                    }
+                });
+            case HOME_AWAY:
+                return birthdayGames.isHome(row) ? 1 : 0;
+            case MONTH:
+                return part.MONTH_NUMBER;
+            case SEASON:
+                return part.SEASON - FIRST_SEASON;
+            default:
+                return 0;
+        }
+    }
+
+    private static Totals[] newTotals(Grouping[] groupings) {
+        Totals[] totals = new Totals[groupings.length];
+        for (int i = 0; i < groupings.length; i++) {
+            totals[i] = new Totals(groupings[i]);
+        }
+        return totals;
+    }
+
+
+    /**
+     * creates one report per grouping (other than ALL) in the Reports directory, e.g., Reports/ByAge.txt,
+     * each with a line per group: record, per-game averages for birthday boys who played, and FG%
+     * @throws IOException if a report cannot be written
+     */
+    public void makeReportFiles() throws IOException {
+        Grouping[] groupings = {Grouping.AGE, Grouping.TEAM, Grouping.HOME_AWAY, Grouping.MONTH, Grouping.SEASON};
+        Totals[] totals = aggregate(groupings);
+        Files.createDirectories(Paths.get("Reports"));
+        for (Totals grouping : totals) {
+            String name = grouping.getGrouping().name().toLowerCase();
+            // e.g., "HOME_AWAY" -> "ByHomeAway.txt"
+            StringBuilder fileName = new StringBuilder("By");
+            for (String word : name.split("_")) {
+                fileName.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            Path path = Paths.get("Reports", fileName + ".txt");
+            Files.writeString(path, formatReport(grouping));
+            System.out.println("You now see birthday-game statistics by " + name.replace('_', '/') + " at " + path);
+        }
+    }
+
+
+    /**
+     * @return the report for one grouping, e.g.,
+     *              As of 2023-04-09, using 2 seasons of birthday games (2022-2023):
+     *              group    W-L      win%   played  pts   reb   ast   mp     FG%
+     *              25       14-9     0.609  31      11.2  4.1   2.3   24:10  0.481
+     */
+    public String formatReport(Totals totals) {
+        StringBuilder report = new StringBuilder();
+        long seasons = PARTS.stream().mapToInt(part -> part.SEASON).distinct().count();
+        report.append("As of ").append(Time.today).append(", using ").append(seasons)
+                .append(seasons == 1 ? " season" : " seasons").append(" of birthday games");
+        if (!PARTS.isEmpty()) {
+            report.append(" (").append(PARTS.get(0).SEASON).append("-")
+                    .append(PARTS.get(PARTS.size() - 1).SEASON).append(")");
+        }
+        report.append(":").append(System.lineSeparator());
+        report.append(String.format("%-9s%-9s%-7s%-8s%-6s%-6s%-6s%-7s%s", "group", "W-L", "win%", "played",
+                "pts", "reb", "ast", "mp", "FG%")).append(System.lineSeparator());
+
+        for (int group : totals.groupsInOrder()) {
+            long wins = totals.get(group, WINS);
+            long losses = totals.get(group, LOSSES);
+            long appearances = totals.get(group, APPEARANCES);
+            long secondsPerGame = appearances == 0 ? 0 : totals.get(group, SECONDS_PLAYED) / appearances;
+            report.append(String.format("%-9s%-9s%-7s%-8d%-6s%-6s%-6s%-7s%s",
+                    totals.label(group),
+                    wins + "-" + losses,
+                    ratio(wins, wins + losses),
+                    appearances,
+                    perGame(totals.get(group, POINTS), appearances),
+                    perGame(totals.get(group, REBOUNDS), appearances),
+                    perGame(totals.get(group, ASSISTS), appearances),
+                    String.format("%d:%02d", secondsPerGame / 60, secondsPerGame % 60),
+                    ratio(totals.get(group, FG), totals.get(group, FGA))));
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private static String ratio(long numerator, long denominator) {
+        return denominator == 0 ? "-" : String.format("%.3f", (double) numerator / denominator);
+    }
+
+    private static String perGame(long total, long games) {
+        return games == 0 ? "-" : String.format("%.1f", (double) total / games);
+    }
+}
@@ -0,0 +1,363 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class HtmlTokenizer {
+    /**
+     * receives tags and text from the tokenizer as it streams through a page
+     * Note: the tokenizer reuses its buffers, so a handler must copy anything it wants to keep.
+     */
+    public interface Handler {
+        /**
+         * @param name       the lowercase tag name if it's one of <code>KNOWN_TAGS</code>, otherwise <code>OTHER</code>
+         * @param attributes the tag's attributes (only valid until this method returns)
+         */
+        void startTag(String name, Attributes attributes);
+
+        void endTag(String name);
+
+        void text(char[] buffer, int start, int length);
+    }
+
+    // the tags our parsers care about; every other tag is reported as OTHER, so no tag name is ever allocated
+    public static final String OTHER = "?";
+    private static final String[] KNOWN_TAGS = {"table", "thead", "tbody", "tfoot", "tr", "th", "td", "a",
+            "script", "style"};
+
+    private enum State {
+        TEXT, TAG_OPEN, TAG_NAME, END_TAG_NAME, MARKUP_DECLARATION, BOGUS, BEFORE_ATTRIBUTE_NAME,
+        ATTRIBUTE_NAME, AFTER_ATTRIBUTE_NAME, BEFORE_ATTRIBUTE_VALUE, ATTRIBUTE_VALUE_DOUBLE_QUOTED,
+        ATTRIBUTE_VALUE_SINGLE_QUOTED, ATTRIBUTE_VALUE_UNQUOTED, RAW_TEXT, AFTER_RAW_TEXT
+    }
+
+    private final Handler HANDLER;
+    private final Attributes ATTRIBUTES = new Attributes();
+    private final char[] TAG_NAME = new char[16];
+    private int tagNameLength;
+    private boolean tagNameTooLong;
+    private int dashes;
+    // for <script> and <style>, whose contents may contain '<' and must not be read as tags
+    private String rawTextTag;
+    private char[] rawTextEnd;
+    private int rawTextMatched;
+
+
+    /**
+     * Class constructor
+     * @param handler receives every tag and run of text, in document order
+     */
+    public HtmlTokenizer(Handler handler) {
+        this.HANDLER = handler;
+    }
+
+
+    /**
+     * reads <code>in</code> exactly once, start to finish, without ever building a line of HTML
+     * Note: basketball-reference.com hides many of its tables inside HTML comments, so comment delimiters
+     * are skipped and everything between them is tokenized like the rest of the page.
+     * @param in a (UTF-8) HTML page
+     * @throws IOException if the page cannot be read
+     */
+    public void tokenize(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        char[] buffer = new char[8192];
+        State state = State.TEXT;
+        int length;
+        while ((length = reader.read(buffer)) != -1) {
+            int textStart = state == State.TEXT ? 0 : -1;
+            for (int i = 0; i < length; i++) {
+                char c = buffer[i];
+                switch (state) {
+                    case TEXT:
+                        if (c == '<') {
+                            if (i > textStart) {
+                                HANDLER.text(buffer, textStart, i - textStart);
+                            }
+                            state = State.TAG_OPEN;
+                        }
+                        break;
+                    case TAG_OPEN:
+                        if (c == '/') {
+                            startTagName();
+                            state = State.END_TAG_NAME;
+                        }
+                        else if (c == '!') {
+                            dashes = 0;
+                            state = State.MARKUP_DECLARATION;
+                        }
+                        else if (Character.isLetter(c)) {
+                            startTagName();
+                            appendTagName(c);
+                            ATTRIBUTES.clear();
+                            state = State.TAG_NAME;
+                        }
+                        else {
+                            // a stray '<' is just text
+                            state = State.TEXT;
+                            textStart = i;
+                        }
+                        break;
+                    case MARKUP_DECLARATION:
+                        // "<!--" opens a comment, whose contents we tokenize; anything else (e.g., <!DOCTYPE>) is skipped
+                        if (c == '-' && ++dashes == 2) {
+                            state = State.TEXT;
+                            textStart = i + 1;
+                        }
+                        else if (c != '-') {
+                            state = c == '>' ? State.TEXT : State.BOGUS;
+                            textStart = i + 1;
+                        }
+                        break;
+                    case BOGUS:
+                        if (c == '>') {
+                            state = State.TEXT;
+                            textStart = i + 1;
+                        }
+                        break;
+                    case TAG_NAME:
+                        if (c == '>') {
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (Character.isWhitespace(c) || c == '/') {
+                            state = State.BEFORE_ATTRIBUTE_NAME;
+                        }
+                        else {
+                            appendTagName(c);
+                        }
+                        break;
+                    case END_TAG_NAME:
+                        if (c == '>') {
+                            HANDLER.endTag(tagName());
+                            state = State.TEXT;
+                            textStart = i + 1;
+                        }
+                        else if (!Character.isWhitespace(c)) {
+                            appendTagName(c);
+                        }
+                        break;
+                    case BEFORE_ATTRIBUTE_NAME:
+                        if (c == '>') {
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (!Character.isWhitespace(c) && c != '/') {
+                            ATTRIBUTES.startName(c);
+                            state = State.ATTRIBUTE_NAME;
+                        }
+                        break;
+                    case ATTRIBUTE_NAME:
+                        if (c == '=') {
+                            state = State.BEFORE_ATTRIBUTE_VALUE;
+                        }
+                        else if (c == '>') {
+                            ATTRIBUTES.endAttribute();
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (Character.isWhitespace(c) || c == '/') {
+                            state = State.AFTER_ATTRIBUTE_NAME;
+                        }
+                        else {
+                            ATTRIBUTES.append(Character.toLowerCase(c));
+                        }
+                        break;
+                    case AFTER_ATTRIBUTE_NAME:
+                        if (c == '=') {
+                            state = State.BEFORE_ATTRIBUTE_VALUE;
+                        }
+                        else if (c == '>') {
+                            ATTRIBUTES.endAttribute();
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (!Character.isWhitespace(c) && c != '/') {
+                            // the previous attribute had no value
+                            ATTRIBUTES.endAttribute();
+                            ATTRIBUTES.startName(c);
+                            state = State.ATTRIBUTE_NAME;
+                        }
+                        break;
+                    case BEFORE_ATTRIBUTE_VALUE:
+                        if (c == '"') {
+                            ATTRIBUTES.startValue();
+                            state = State.ATTRIBUTE_VALUE_DOUBLE_QUOTED;
+                        }
+                        else if (c == '\'') {
+                            ATTRIBUTES.startValue();
+                            state = State.ATTRIBUTE_VALUE_SINGLE_QUOTED;
+                        }
+                        else if (c == '>') {
+                            ATTRIBUTES.endAttribute();
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (!Character.isWhitespace(c)) {
+                            ATTRIBUTES.startValue();
+                            ATTRIBUTES.append(c);
+                            state = State.ATTRIBUTE_VALUE_UNQUOTED;
+                        }
+                        break;
+                    case ATTRIBUTE_VALUE_DOUBLE_QUOTED:
+                    case ATTRIBUTE_VALUE_SINGLE_QUOTED:
+                        if (c == (state == State.ATTRIBUTE_VALUE_DOUBLE_QUOTED ? '"' : '\'')) {
+                            ATTRIBUTES.endAttribute();
+                            state = State.BEFORE_ATTRIBUTE_NAME;
+                        }
+                        else {
+                            ATTRIBUTES.append(c);
+                        }
+                        break;
+                    case ATTRIBUTE_VALUE_UNQUOTED:
+                        if (c == '>') {
+                            ATTRIBUTES.endAttribute();
+                            state = emitStartTag();
+                            textStart = i + 1;
+                        }
+                        else if (Character.isWhitespace(c)) {
+                            ATTRIBUTES.endAttribute();
+                            state = State.BEFORE_ATTRIBUTE_NAME;
+                        }
+                        else {
+                            ATTRIBUTES.append(c);
+                        }
+                        break;
+                    case RAW_TEXT:
+                        // look for the matching end tag, e.g., "</script", ignoring case
+                        if (Character.toLowerCase(c) == rawTextEnd[rawTextMatched]) {
+                            rawTextMatched++;
+                            if (rawTextMatched == rawTextEnd.length) {
+                                state = State.AFTER_RAW_TEXT;
+                            }
+                        }
+                        else {
+                            rawTextMatched = c == '<' ? 1 : 0;
+                        }
+                        break;
+                    case AFTER_RAW_TEXT:
+                        if (c == '>') {
+                            HANDLER.endTag(rawTextTag);
+                            state = State.TEXT;
+                            textStart = i + 1;
+                        }
+                        break;
+                }
+            }
+            // pass along whatever text is left at the end of the buffer
+            if (state == State.TEXT && textStart < length) {
+                HANDLER.text(buffer, textStart, length - textStart);
+            }
+        }
+    }
+
+    private void startTagName() {
+        tagNameLength = 0;
+        tagNameTooLong = false;
+    }
+
+    private void appendTagName(char c) {
+        if (tagNameLength == TAG_NAME.length) {
+            tagNameTooLong = true;
+        }
+        else {
+            TAG_NAME[tagNameLength++] = Character.toLowerCase(c);
+        }
+    }
+
+    private String tagName() {
+        if (!tagNameTooLong) {
+            for (String knownTag : KNOWN_TAGS) {
+                if (knownTag.length() == tagNameLength && matches(knownTag, TAG_NAME, 0)) {
+                    return knownTag;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private static boolean matches(String name, char[] chars, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (chars[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private State emitStartTag() {
+        String name = tagName();
+        HANDLER.startTag(name, ATTRIBUTES);
+        if (name.equals("script") || name.equals("style")) {
+            rawTextTag = name;
+            rawTextEnd = ("</" + name).toCharArray();
+            rawTextMatched = 0;
+            return State.RAW_TEXT;
+        }
+        return State.TEXT;
+    }
+
+
+    /**
+     * the attributes of the current start tag, kept in one reusable character buffer
+     * so that only the values a handler actually asks for are turned into Strings
+     */
+    public static class Attributes {
+        private char[] chars = new char[256];
+        private int length;
+        // for each attribute: name start, name end, value start, value end
+        private int[] bounds = new int[32];
+        private int count;
+
+        private void clear() {
+            length = 0;
+            count = 0;
+        }
+
+        private void startName(char c) {
+            if (bounds.length < (count + 1) * 4) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count * 4] = length;
+            bounds[count * 4 + 2] = -1;
+            append(Character.toLowerCase(c));
+        }
+
+        private void startValue() {
+            bounds[count * 4 + 1] = length;
+            bounds[count * 4 + 2] = length;
+        }
+
+        private void append(char c) {
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            chars[length++] = c;
+        }
+
+        private void endAttribute() {
+            if (bounds[count * 4 + 2] == -1) {
+                // no value: the name runs to here
+                bounds[count * 4 + 1] = length;
+                bounds[count * 4 + 2] = length;
+            }
+            bounds[count * 4 + 3] = length;
+            count++;
+        }
+
+
+        /**
+         * @param name a lowercase attribute name, e.g., "data-stat"
+         * @return the attribute's value, or <code>null</code> if the tag doesn't have it
+         */
+        public String get(String name) {
+            for (int i = 0; i < count; i++) {
+                int nameStart = bounds[i * 4];
+                int nameEnd = bounds[i * 4 + 1];
+                if (nameEnd - nameStart == name.length() && HtmlTokenizer.matches(name, chars, nameStart)) {
+                    return new String(chars, bounds[i * 4 + 2], bounds[i * 4 + 3] - bounds[i * 4 + 2]);
+                }
+            }
+            return null;
+        }
+    }
+}
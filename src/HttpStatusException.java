@@ -0,0 +1,57 @@
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int STATUS_CODE;
+    private final Duration RETRY_AFTER;
+
+
+    /**
+     * Class constructor
+     * @param url        the page that was requested
+     * @param statusCode e.g., 429
+     * @param retryAfter how long the server asked us to wait before trying again (from its Retry-After header),
+     *                   or <code>null</code> if it didn't say
+     */
+    public HttpStatusException(String url, int statusCode, Duration retryAfter) {
+        super("Server returned HTTP response code: " + statusCode + " for URL: " + url);
+        this.STATUS_CODE = statusCode;
+        this.RETRY_AFTER = retryAfter;
+    }
+
+
+    /**
+     * @param retryAfter a Retry-After header, either a number of seconds (e.g., "3600") or an HTTP date
+     *                   (e.g., "Wed, 21 Oct 2015 07:28:00 GMT")
+     * @return how long it asks us to wait (zero for a date that's already passed), or <code>null</code>
+     *         if the header is missing or can't be read
+     */
+    public static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(retryAfter.trim()), 0));
+        }
+        catch (NumberFormatException e) {
+            // not a number of seconds, so it should be a date
+        }
+        try {
+            Duration wait = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return wait.isNegative() ? Duration.ZERO : wait;
+        }
+        catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public int getStatusCode() { return STATUS_CODE; }
+
+    public Duration getRetryAfter() { return RETRY_AFTER; }
+}
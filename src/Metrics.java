@@ -0,0 +1,293 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+    /**
+     * shared by everything in the run (every season of a backfill included), and exported at the end of it
+     */
+    public static final Metrics RUN = new Metrics();
+
+    // histogram bucket upper bounds, in seconds: from a parse that takes milliseconds
+    // to a request that waits out a whole window of the request budget
+    private static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 300,
+            1800, 3660};
+
+    // metric name -> labels (e.g., type="schedule",outcome="ok") -> value
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> COUNTERS = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Histogram>> HISTOGRAMS =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> HELP = new ConcurrentHashMap<>();
+
+    // pages the run knows it has to open, and how many of them it has
+    private final LongAdder expectedPages = new LongAdder();
+    private final LongAdder openedPages = new LongAdder();
+    private final long START_NANOS = System.nanoTime();
+    private ScheduledExecutorService progressReports;
+
+
+    /**
+     * counts observations (in nanoseconds) into cumulative buckets, the way Prometheus histograms are exported
+     */
+    private static class Histogram {
+        private final LongAdder[] BUCKET_COUNTS = new LongAdder[BUCKETS.length];
+        private final LongAdder COUNT = new LongAdder();
+        private final LongAdder SUM_NANOS = new LongAdder();
+
+        private Histogram() {
+            for (int i = 0; i < BUCKETS.length; i++) {
+                BUCKET_COUNTS[i] = new LongAdder();
+            }
+        }
+
+        private void observe(long nanos) {
+            double seconds = nanos / 1e9;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    BUCKET_COUNTS[i].increment();
+                    break;
+                }
+            }
+            COUNT.increment();
+            SUM_NANOS.add(nanos);
+        }
+    }
+
+
+    /**
+     * times a stage from its creation until it's stopped, e.g.,
+     *      Metrics.Timer timer = Metrics.RUN.startStage(labels);
+     *      try { ... } finally { timer.stop(); }
+     */
+    public class Timer {
+        private final String NAME;
+        private final String LABELS;
+        private final long START = System.nanoTime();
+
+        private Timer(String name, String labels) {
+            this.NAME = name;
+            this.LABELS = labels;
+        }
+
+        public void stop() {
+            observe(NAME, LABELS, System.nanoTime() - START);
+        }
+    }
+
+
+    /**
+     * @param namesAndValues label names, each followed by its value, e.g., "type", "schedule"
+     * @return the labels in Prometheus form, e.g., type="schedule"
+     */
+    public static String labels(String... namesAndValues) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (labels.length() > 0) {
+                labels.append(',');
+            }
+            labels.append(namesAndValues[i]).append("=\"")
+                    .append(namesAndValues[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return labels.toString();
+    }
+
+
+    /**
+     * @param name   e.g., "nba_fetch_requests_total"
+     * @param help   what the metric counts, for the export
+     * @param labels from <code>labels</code>
+     * @param amount how much to add
+     */
+    public void add(String name, String help, String labels, long amount) {
+        HELP.putIfAbsent(name, help);
+        COUNTERS.computeIfAbsent(name, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(labels, l -> new LongAdder()).add(amount);
+    }
+
+
+    /**
+     * @param name   e.g., "nba_fetch_duration_seconds"
+     * @param help   what the metric times, for the export
+     * @param labels from <code>labels</code>
+     * @param nanos  how long the observed operation took
+     */
+    public void observe(String name, String help, String labels, long nanos) {
+        HELP.putIfAbsent(name, help);
+        observe(name, labels, nanos);
+    }
+
+    private void observe(String name, String labels, long nanos) {
+        HISTOGRAMS.computeIfAbsent(name, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(labels, l -> new Histogram()).observe(nanos);
+    }
+
+
+    /**
+     * @return a timer for one run of a parse or write stage (e.g., stage="schedule_parse",season="2023",
+     *         month="October"), recorded in the nba_stage_duration_seconds histogram when it's stopped
+     */
+    public Timer startStage(String labels) {
+        HELP.putIfAbsent("nba_stage_duration_seconds", "Time spent in each parse and write stage.");
+        return new Timer("nba_stage_duration_seconds", labels);
+    }
+
+
+    /**
+     * tells the progress reports about pages the run has found it will have to open
+     * (e.g., the box scores of a month's birthday games)
+     */
+    public void expectPages(int pages) {
+        expectedPages.add(pages);
+    }
+
+
+    /**
+     * tells the progress reports a page has been opened (whether it was fetched or served from the cache)
+     */
+    public void pageOpened() {
+        openedPages.increment();
+    }
+
+
+    /**
+     * @return e.g., "Progress: 120 of 450 pages (27%) after 1h02m, 2 failed requests, 48m waiting on
+     *         the request budget; about 2h50m to go."
+     */
+    public String progressLine() {
+        long expected = expectedPages.sum();
+        long opened = Math.min(openedPages.sum(), expected);
+        long elapsedNanos = System.nanoTime() - START_NANOS;
+        long failed = 0;
+        for (Map.Entry<String, LongAdder> series : COUNTERS.getOrDefault("nba_fetch_requests_total",
+                new ConcurrentHashMap<>()).entrySet()) {
+            if (series.getKey().contains("outcome=\"error\"") || series.getKey().contains("outcome=\"http_")) {
+                failed += series.getValue().sum();
+            }
+        }
+        long throttledNanos = 0;
+        for (Histogram throttled : HISTOGRAMS.getOrDefault("nba_throttle_wait_seconds",
+                new ConcurrentHashMap<>()).values()) {
+            throttledNanos += throttled.SUM_NANOS.sum();
+        }
+
+        StringBuilder line = new StringBuilder("Progress: ").append(opened).append(" of ").append(expected)
+                .append(" pages (").append(expected == 0 ? 0 : opened * 100 / expected).append("%) after ")
+                .append(formatDuration(elapsedNanos)).append(", ").append(failed).append(" failed requests, ")
+                .append(formatDuration(throttledNanos)).append(" waiting on the request budget");
+        if (opened > 0 && opened < expected) {
+            // assume the rest of the pages come in at the rate the first ones did
+            long remainingNanos = (long) ((double) elapsedNanos / opened * (expected - opened));
+            line.append("; about ").append(formatDuration(remainingNanos)).append(" to go");
+        }
+        return line.append(".").toString();
+    }
+
+
+    /**
+     * prints <code>progressLine</code> every <code>period</code> while pages are still expected,
+     * until <code>stopProgressReports</code>
+     */
+    public synchronized void startProgressReports(Duration period) {
+        if (progressReports != null) {
+            return;
+        }
+        progressReports = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-reports");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progressReports.scheduleAtFixedRate(() -> {
+            if (openedPages.sum() < expectedPages.sum()) {
+                System.out.println(progressLine());
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopProgressReports() {
+        if (progressReports != null) {
+            progressReports.shutdownNow();
+            progressReports = null;
+        }
+    }
+
+
+    /**
+     * @return every metric in the Prometheus text exposition format
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, ConcurrentHashMap<String, LongAdder>> counter : new TreeMap<>(COUNTERS).entrySet()) {
+            String name = counter.getKey();
+            out.append("# HELP ").append(name).append(' ').append(HELP.get(name)).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            for (Map.Entry<String, LongAdder> series : new TreeMap<>(counter.getValue()).entrySet()) {
+                out.append(name).append(braces(series.getKey())).append(' ').append(series.getValue().sum())
+                        .append('\n');
+            }
+        }
+        for (Map.Entry<String, ConcurrentHashMap<String, Histogram>> histogram :
+                new TreeMap<>(HISTOGRAMS).entrySet()) {
+            String name = histogram.getKey();
+            out.append("# HELP ").append(name).append(' ').append(HELP.get(name)).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            for (Map.Entry<String, Histogram> series : new TreeMap<>(histogram.getValue()).entrySet()) {
+                String labels = series.getKey();
+                String separator = labels.isEmpty() ? "" : ",";
+                long cumulative = 0;
+                for (int i = 0; i < BUCKETS.length; i++) {
+                    cumulative += series.getValue().BUCKET_COUNTS[i].sum();
+                    out.append(name).append("_bucket{").append(labels).append(separator)
+                            .append("le=\"").append(BUCKETS[i]).append("\"} ").append(cumulative).append('\n');
+                }
+                long count = series.getValue().COUNT.sum();
+                out.append(name).append("_bucket{").append(labels).append(separator).append("le=\"+Inf\"} ")
+                        .append(count).append('\n');
+                out.append(name).append("_sum").append(braces(labels)).append(' ')
+                        .append(series.getValue().SUM_NANOS.sum() / 1e9).append('\n');
+                out.append(name).append("_count").append(braces(labels)).append(' ').append(count).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+
+    /**
+     * writes <code>toPrometheus</code> to <code>path</code>, e.g., Metrics.prom
+     * (a failure is reported, rather than thrown, since it shouldn't cost the run its other output)
+     */
+    public void writeTo(Path path) {
+        try {
+            Files.writeString(path, toPrometheus(), StandardCharsets.UTF_8);
+            System.out.println("You now see this run's metrics at " + path);
+        }
+        catch (IOException e) {
+            System.out.println("The metrics couldn't be written to " + path + ": " + e);
+        }
+    }
+
+    private static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    // e.g., "2h50m", "48m", or "12s"
+    static String formatDuration(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        long minutes = seconds / 60;
+        if (minutes < 60) {
+            return minutes + "m";
+        }
+        return minutes / 60 + "h" + String.format("%02d", minutes % 60) + "m";
+    }
+}
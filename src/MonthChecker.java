@@ -174,5 +174,14 @@ public class MonthChecker {
         }
     }
 
+    /**
+     * setter method for <code>ArrayList<Integer> monthsToFetch</code> that, without asking, selects
+     * every month with partial or missing birthday-game data
+     */
+    public void setAllIncompleteMonthsToFetch() {
+        monthsToFetch = new ArrayList<>(partialMonths);
+        monthsToFetch.addAll(missingMonths);
+    }
+
     public ArrayList<Integer> getMonthsToFetch() { return monthsToFetch; }
 }
\ No newline at end of file
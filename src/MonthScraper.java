@@ -1,324 +1,408 @@
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.MonthDay;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 
 public class MonthScraper {
+    // how many games each stage of getMonthGameRecords can get ahead of the next one by
+    private static final int QUEUE_CAPACITY = 16;
+    // box scores downloaded at once per month (each still waits its turn for a request budget permit)
+    private static final int BOX_SCORE_FETCHERS = 2;
+
     private final int SEASON;
-    private final ConcurrentHashMap<String, TreeMap<MonthDay, ArrayList<String[]>>> IN_SEASON_TEAM_BIRTHDAYS;
+    private final BirthdayIndex IN_SEASON_TEAM_BIRTHDAYS;
 
 
     /**
      * Class constructor
      * @param season                the NBA season, as an <code>int</code> (e.g., 2023)
-     * @param inSeasonTeamBirthdays a mapping from each team abbreviation (e.g., "ATL") to
-     *                              a corresponding map mapping birthdays to players sharing that birthday
-     *                              e.g., for the 2023 season, inSeasonTeamBirthdays.get("DAL") contains:
-     *                                  03-16: Reggie Bullock (1991), Tim Hardaway Jr. (1992)
+     * @param inSeasonTeamBirthdays an index of each team's (e.g., "ATL") players by birthday
+     *                              e.g., for the 2023 season, DAL's 03-16 holds:
+     *                                  Reggie Bullock (1991), Tim Hardaway Jr. (1992)
      */
-    public MonthScraper(int season,
-                        ConcurrentHashMap<String, TreeMap<MonthDay, ArrayList<String[]>>> inSeasonTeamBirthdays) {
+    public MonthScraper(int season, BirthdayIndex inSeasonTeamBirthdays) {
         this.SEASON =  season;
-        this.IN_SEASON_TEAM_BIRTHDAYS = new ConcurrentHashMap<>(inSeasonTeamBirthdays);
+        // the index is immutable, so there's no need to copy it
+        this.IN_SEASON_TEAM_BIRTHDAYS = inSeasonTeamBirthdays;
     }
 
 
     /**
-     * retrieves a player's stat line for a day-after-birthday game that has already occurred
-     * @param player    the player's name, as a String, e.g., "Trae Young"
-     * @param gameDate  a LocalDate representation of the game date
-     * @param homeTeam  a String containing the home team's abbreviation, e.g., "ATL"
-     * @return a String representation of the stat line
+     * gets all birthday boys (and their stats, if applicable) for team's game on <code>gameDate</code>
+     * @param teamAbbreviation      e.g., "ATL"
+     * @param gameDate              a LocalDate representation of the game date
+     * @param boxScore              the game's box score, shared by both teams' birthday boys,
+     *                              or <code>null</code> if the game hasn't been played yet
+     * @return the team's birthday boys, in alphabetical order
+     */
+    public ArrayList<GameRecord.BirthdayBoy> getBirthdayBoys(String teamAbbreviation, LocalDate gameDate,
+                                                            BoxScore boxScore) {
+        int team = BirthdayIndex.teamNumber(teamAbbreviation);
+        int dayBeforeGame = BirthdayIndex.dayBeforeGame(gameDate);
+        // the birthday was this year, unless the game was on January 1
+        int birthdayYear = gameDate.getDayOfYear() == 1 ? gameDate.getYear() - 1 : gameDate.getYear();
+
+        ArrayList<GameRecord.BirthdayBoy> birthdayBoys = new ArrayList<>();
+        for (int i = 0; i < IN_SEASON_TEAM_BIRTHDAYS.playerCount(team, dayBeforeGame); i++) {
+            PlayerBirthday player = IN_SEASON_TEAM_BIRTHDAYS.getPlayer(team, dayBeforeGame, i);
+            StatLine stats = boxScore == null ? StatLine.NONE : boxScore.getStatLine(player.getId(), player.getName());
+            birthdayBoys.add(new GameRecord.BirthdayBoy(teamAbbreviation, player.getId(), player.getName(),
+                    birthdayYear - player.getBirthYear(), stats));
+        }
+        return birthdayBoys;
+    }
+
+
+    /**
+     * @param season      the NBA season, as an <code>int</code> (e.g., 2023)
+     * @param monthNumber e.g., 10 for "October"
+     * @return the month's schedule page, e.g., https://www.basketball-reference.com/leagues/NBA_2023_games-october.html
+     */
+    public static String getSchedulePage(int season, int monthNumber) {
+        return "https://www.basketball-reference.com/leagues/NBA_" +
+                season + "_games-" +
+                Nba.MONTHS.get(monthNumber).toLowerCase() +
+                ".html";
+    }
+
+
+    /**
+     * returns a record of every birthday game in the month, fetching box scores only for games that
+     * aren't already finalized in the month's <code>GameRecordStore</code> file
+     * The month runs as a pipeline of stages, each its own task(s), handing games along through bounded
+     * <code>StageQueue</code>s:
+     *      schedule ingest     reads the schedule page, then hands on its games in order
+     *      birthday matching   keeps the birthday games, sending played ones off for their box scores
+     *      box score fetch     downloads box score pages (BOX_SCORE_FETCHERS at a time)
+     *      stat extraction     parses each box score and builds the game's record
+     *      writing             journals each record as it comes in, and queues failed fetches for a retry
+     * A stage that gets a queue ahead of the next one waits for it, so the request budget (which the fetchers
+     * wait on) is the only thing holding the month back, and every other stage keeps up with it.
+     * If any stage fails, the others are stopped, and its failure is thrown.
+     * @param monthNumber           e.g., 10 for "October"
      * @throws IOException
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
+     * @return                      every birthday game (and birthday boy results) in the month, in schedule order
      */
-    // getStats could be edited to guarantee no more than one connection per game
-    // currently, it connects once per birthday boy for a given game
-    // however, over the course of the season, there are so few multiple-birthday-boy games
-    // that this savings would be minimal
-    public String getStats(String player, LocalDate gameDate, String homeTeam)
-            throws IOException, InterruptedException {
-        StringBuilder statLine = new StringBuilder();
-
-        Time.pauseExecutionIfNecessary();
-
-        URL boxScorePage = new URL("https://www.basketball-reference.com/boxscores/" +
-                gameDate.toString().replace("-", "") + "0" +
-                homeTeam + ".html");
-        HttpURLConnection boxScoreConnection = (HttpURLConnection) boxScorePage.openConnection();
-        Time.BRUrlConnectionsThisHour++;
-        InputStream boxScoreInputStream = boxScoreConnection.getInputStream();
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(boxScoreInputStream))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.contains(player)) {
-                    if (line.contains("Did Not Play")) {
-                        statLine.append(" (DNP)");
-                        break;
+    public ArrayList<GameRecord> getMonthGameRecords(int monthNumber) throws IOException, InterruptedException {
+        // games finalized on an earlier run keep the birthday boys (and stats) they were recorded with
+        GameRecordStore store = new GameRecordStore(SEASON);
+        LinkedHashMap<String, GameRecord> recordedGames = store.load(monthNumber);
+        // as do the games journaled by a run that died before it could save the month
+        LinkedHashMap<String, GameRecord> journaledGames = store.loadJournal(monthNumber);
+        if (!journaledGames.isEmpty()) {
+            System.out.println("Resuming " + Nba.MONTHS.get(monthNumber) + " " + SEASON + " from " +
+                    journaledGames.size() + " journaled games.");
+            recordedGames.putAll(journaledGames);
+        }
+
+        StageQueue<PendingGame> scheduled = new StageQueue<>(QUEUE_CAPACITY, 1,
+                queueLabels("scheduled", monthNumber));
+        StageQueue<PendingGame> toFetch = new StageQueue<>(QUEUE_CAPACITY, 1,
+                queueLabels("box_scores_to_fetch", monthNumber));
+        // fed by every fetcher, and by birthday matching (with games that have nothing to fetch)
+        StageQueue<PendingGame> toResolve = new StageQueue<>(QUEUE_CAPACITY, 1 + BOX_SCORE_FETCHERS,
+                queueLabels("games_to_resolve", monthNumber));
+        StageQueue<PendingGame> resolved = new StageQueue<>(QUEUE_CAPACITY, 1,
+                queueLabels("resolved", monthNumber));
+        // schedule index -> record, written only by the writing stage
+        TreeMap<Integer, GameRecord> records = new TreeMap<>();
+
+        ArrayList<Callable<Void>> stages = new ArrayList<>();
+        stages.add(() -> ingestSchedule(monthNumber, scheduled));
+        stages.add(() -> matchBirthdays(recordedGames, scheduled, toFetch, toResolve));
+        for (int i = 0; i < BOX_SCORE_FETCHERS; i++) {
+            stages.add(() -> fetchBoxScores(toFetch, toResolve));
+        }
+        stages.add(() -> extractStats(toResolve, resolved));
+        stages.add(() -> writeRecords(monthNumber, store, resolved, records));
+        runStages(stages);
+
+        return new ArrayList<>(records.values());
+    }
+
+
+    // a game on its way through the stages of getMonthGameRecords
+    private static class PendingGame {
+        // its place in the month's schedule
+        private final int INDEX;
+        private final ScheduleGame GAME;
+
+        private boolean played;
+        private byte[] boxScorePage;
+        private IOException failure;
+        private GameRecord record;
+        // finalized on an earlier run, so there's nothing to journal
+        private boolean alreadyRecorded;
+
+        private PendingGame(int index, ScheduleGame game) {
+            this.INDEX = index;
+            this.GAME = game;
+        }
+    }
+
+
+    // runs every stage as a task on the shared fetch executor (stages mostly wait on queues and the request budget)
+    // until they're all done, or stops them all at the first failure
+    private static void runStages(List<Callable<Void>> stages) throws IOException, InterruptedException {
+        ExecutorCompletionService<Void> running = new ExecutorCompletionService<>(PageFetcher.ioExecutor());
+        ArrayList<Future<Void>> tasks = new ArrayList<>();
+        try {
+            for (Callable<Void> stage : stages) {
+                tasks.add(running.submit(stage));
+            }
+            for (int i = 0; i < stages.size(); i++) {
+                try {
+                    running.take().get();
+                }
+                catch (ExecutionException e) {
+                    Throwable failure = e.getCause();
+                    if (failure instanceof IOException) {
+                        throw (IOException) failure;
                     }
-                    else if (line.contains("Did Not Dress")) {
-                        statLine.append(" (DND)");
-                        break;
+                    if (failure instanceof InterruptedException) {
+                        throw (InterruptedException) failure;
                     }
-                    else {
-                        statLine.append(" (");
-                        int index = line.indexOf("data-stat=\"mp\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
-                        }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
-                        }
-                        statLine.append(" mp, ");
+                    if (failure instanceof RuntimeException) {
+                        throw (RuntimeException) failure;
+                    }
+                    throw new RuntimeException(failure);
+                }
+            }
+        }
+        finally {
+            // stages still waiting on a queue are interrupted out of it
+            for (Future<Void> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
 
-                        index = line.indexOf("data-stat=\"pts\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
-                        }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
-                        }
-                        statLine.append(" pts, ");
 
-                        index = line.indexOf("data-stat=\"fg\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
-                        }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
-                        }
-                        statLine.append("/");
+    // schedule ingest: every game in the month's schedule, in order
+    private Void ingestSchedule(int monthNumber, StageQueue<PendingGame> scheduled)
+            throws IOException, InterruptedException {
+        ArrayList<ScheduleGame> games = new ArrayList<>();
+        Metrics.RUN.expectPages(1);
+        Metrics.Timer timer = Metrics.RUN.startStage(stageLabels("schedule_parse", monthNumber));
+        try (InputStream scheduleInputStream = PageFetcher.open(getSchedulePage(SEASON, monthNumber),
+                CachePolicy.forSchedulePage(SEASON, monthNumber))) {
+            ScheduleGame.parse(scheduleInputStream, games::add);
+        }
+        finally {
+            timer.stop();
+        }
+        // the page is closed before any game is handed on, so it's never held open behind the later stages
+        for (int i = 0; i < games.size(); i++) {
+            scheduled.put(new PendingGame(i, games.get(i)));
+        }
+        scheduled.close();
+        return null;
+    }
 
-                        index = line.indexOf("data-stat=\"fga\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
-                        }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
-                        }
-                        statLine.append(" fga, ");
 
-                        index = line.indexOf("data-stat=\"trb\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
-                        }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
-                        }
-                        statLine.append(" reb, ");
+    // birthday matching: birthday games that need their box score go to the fetchers, and the rest straight on
+    private Void matchBirthdays(Map<String, GameRecord> recordedGames, StageQueue<PendingGame> scheduled,
+                                StageQueue<PendingGame> toFetch, StageQueue<PendingGame> toResolve)
+            throws InterruptedException {
+        PendingGame pending;
+        while ((pending = scheduled.take()) != null) {
+            ScheduleGame game = pending.GAME;
+            GameRecord recorded = recordedGames.get(
+                    GameRecord.getKey(game.getGameDate(), game.getVisitor(), game.getHome()));
+            if (recorded != null && recorded.isFinalized()) {
+                pending.record = recorded;
+                pending.alreadyRecorded = true;
+                toResolve.put(pending);
+            }
+            else if (hasBirthdayBoys(game)) {
+                pending.played = isPlayed(game);
+                if (pending.played) {
+                    Metrics.RUN.expectPages(1);
+                    toFetch.put(pending);
+                }
+                else {
+                    toResolve.put(pending);
+                }
+            }
+        }
+        toFetch.close();
+        toResolve.close();
+        return null;
+    }
+
 
-                        index = line.indexOf("data-stat=\"ast\"");
-                        while (line.charAt(index) != '>') {
-                            index++;
+    // box score fetch: one request per game, no matter how many birthday boys (on either team) played in it
+    private static Void fetchBoxScores(StageQueue<PendingGame> toFetch, StageQueue<PendingGame> toResolve)
+            throws InterruptedException {
+        PendingGame pending;
+        while ((pending = toFetch.take()) != null) {
+            try {
+                pending.boxScorePage = BoxScore.download(pending.GAME.getGameDate(), pending.GAME.getHome());
+            }
+            catch (IOException e) {
+                pending.failure = e;
+            }
+            toResolve.put(pending);
+        }
+        toResolve.close();
+        return null;
+    }
+
+
+    // stat extraction: each birthday boy's stat line from his game's box score, in the game's record
+    private Void extractStats(StageQueue<PendingGame> toResolve, StageQueue<PendingGame> resolved)
+            throws InterruptedException {
+        PendingGame pending;
+        while ((pending = toResolve.take()) != null) {
+            if (pending.record == null) {
+                ScheduleGame game = pending.GAME;
+                LocalDate gameDate = game.getGameDate();
+                BoxScore boxScore = null;
+                if (pending.boxScorePage != null) {
+                    boxScore = BoxScore.parse(pending.boxScorePage, gameDate);
+                    pending.boxScorePage = null;
+                    if (!boxScore.isComplete()) {
+                        String url = BoxScore.getUrl(gameDate, game.getHome());
+                        pending.failure = new IOException("Couldn't read " + url);
+                        // box scores are cached for good, so a cut-off page would otherwise be all a retry gets
+                        try {
+                            PageFetcher.evict(url);
                         }
-                        index++;
-                        while (line.charAt(index) != '<') {
-                            statLine.append(line.charAt(index));
-                            index++;
+                        catch (IOException e) {
+                            pending.failure.addSuppressed(e);
                         }
-                        statLine.append(" ast)");
-                        break;
                     }
                 }
+                boolean finalized = pending.played && pending.failure == null;
+
+                ArrayList<GameRecord.BirthdayBoy> birthdayBoys = getBirthdayBoys(game.getVisitor(), gameDate, boxScore);
+                birthdayBoys.addAll(getBirthdayBoys(game.getHome(), gameDate, boxScore));
+                pending.record = new GameRecord(gameDate, game.getVisitor(), game.getHome(), pending.played,
+                        game.getVisitorPoints(), game.getHomePoints(), finalized, birthdayBoys);
             }
+            resolved.put(pending);
         }
-        catch (Exception e) {
-            return "";
+        resolved.close();
+        return null;
+    }
+
+
+    // writing: journals each newly resolved game, and queues the box scores that couldn't be fetched
+    private Void writeRecords(int monthNumber, GameRecordStore store, StageQueue<PendingGame> resolved,
+                              TreeMap<Integer, GameRecord> records) throws IOException, InterruptedException {
+        PendingGame pending;
+        while ((pending = resolved.take()) != null) {
+            records.put(pending.INDEX, pending.record);
+            if (pending.alreadyRecorded) {
+                continue;
+            }
+            store.journal(monthNumber, pending.record);
+            ScheduleGame game = pending.GAME;
+            // a postponed game's box score won't come in, so an earlier run's failed fetch of it is dropped
+            if (!pending.played && LocalDate.now().isAfter(game.getGameDate())) {
+                new RetryQueue(SEASON).remove(BoxScore.getUrl(game.getGameDate(), game.getHome()));
+            }
+            // the game is saved without stats for now, and patched in place once its box score comes in
+            if (pending.failure != null) {
+                System.out.println("Couldn't get the box score for " + game.getVisitor() + " at " + game.getHome() +
+                        " on " + game.getGameDate() + ": " + pending.failure.getMessage());
+                new RetryQueue(SEASON).add(RetryQueue.BOX_SCORE, BoxScore.getUrl(game.getGameDate(), game.getHome()),
+                        pending.failure, String.valueOf(monthNumber), pending.record.getKey());
+            }
         }
-        boxScoreConnection.disconnect();
-        return statLine.toString();
+        return null;
+    }
+
+
+    // whether the game has been played: it's in the past, and the schedule has its score
+    // (a postponed game keeps its original date with no score, and its box score page doesn't exist, so it's
+    // left unplayed, with nothing to fetch, until the schedule shows it played)
+    private static boolean isPlayed(ScheduleGame game) {
+        return LocalDate.now().isAfter(game.getGameDate()) && !game.getHomePoints().isEmpty();
+    }
+
+
+    // whether either team has a birthday boy (a player whose birthday was the day before the game)
+    private boolean hasBirthdayBoys(ScheduleGame game) {
+        int dayBeforeGame = BirthdayIndex.dayBeforeGame(game.getGameDate());
+        return IN_SEASON_TEAM_BIRTHDAYS.hasBirthday(BirthdayIndex.teamNumber(game.getVisitor()), dayBeforeGame) ||
+                IN_SEASON_TEAM_BIRTHDAYS.hasBirthday(BirthdayIndex.teamNumber(game.getHome()), dayBeforeGame);
     }
 
 
     /**
-     * gets all birthday boys (and their stats, if applicable) for team's game on <code>gameDate</code>
-     * @param teamAbbreviation      e.g., "ATL"
-     * @param gameDate              a LocalDate representation of the game date
-     * @param homeTeamAbbreviation  e.g., "ATL". Note that teamAbbreviation and homeTeamAbbreviation may be equal.
-     * @return a String containing all birthday boys (and their stats, if applicable)
-     * @throws IOException
-     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     * @param games         the month's schedule
+     * @param recordedGames the month's game records from earlier runs, keyed by <code>GameRecord.getKey()</code>
+     * @return the box score pages <code>getMonthGameRecords</code> will fetch for <code>games</code>
+     *         (played birthday games that aren't finalized yet), for fetch plans
      */
-    public String getBirthdays(String teamAbbreviation, LocalDate gameDate, String homeTeamAbbreviation)
-            throws IOException, InterruptedException {
-        LocalDate localDayBeforeGame = gameDate.minusDays(1);
-        MonthDay localMonthDayBeforeGame = java.time.MonthDay.of(localDayBeforeGame.getMonthValue(),
-                localDayBeforeGame.getDayOfMonth());
-
-        StringBuilder out = new StringBuilder();
-
-        if (IN_SEASON_TEAM_BIRTHDAYS.get(teamAbbreviation).get(localMonthDayBeforeGame) != null) {
-            out.append(teamAbbreviation).append(": ");
-            for (int i = 0; i < IN_SEASON_TEAM_BIRTHDAYS.get(teamAbbreviation).get(localMonthDayBeforeGame).size(); i++) {
-                int age = localDayBeforeGame.getYear() -
-                        Integer.parseInt(IN_SEASON_TEAM_BIRTHDAYS.get(teamAbbreviation)
-                                .get(localMonthDayBeforeGame).get(i)[1]);
-                String turn = " turns ";
-                String stats = "";
-                if (java.time.LocalDate.now().isAfter(gameDate)) {
-                    turn = " turned ";
-                    stats = getStats(IN_SEASON_TEAM_BIRTHDAYS
-                                    .get(teamAbbreviation)
-                                    .get(localMonthDayBeforeGame)
-                                    .get(i)[0],
-                            gameDate,
-                            homeTeamAbbreviation);
-                }
-                out.append(IN_SEASON_TEAM_BIRTHDAYS.get(teamAbbreviation).get(localMonthDayBeforeGame).get(i)[0])
-                        .append(turn).append(age).append(stats);
-                if (i != IN_SEASON_TEAM_BIRTHDAYS.get(teamAbbreviation).get(localMonthDayBeforeGame).size() - 1) {
-                    out.append(", ");
-                }
+    public ArrayList<String> getBoxScoresToFetch(List<ScheduleGame> games, Map<String, GameRecord> recordedGames) {
+        ArrayList<String> boxScores = new ArrayList<>();
+        for (ScheduleGame game : games) {
+            GameRecord recorded = recordedGames.get(
+                    GameRecord.getKey(game.getGameDate(), game.getVisitor(), game.getHome()));
+            if ((recorded == null || !recorded.isFinalized()) &&
+                    isPlayed(game) && hasBirthdayBoys(game)) {
+                boxScores.add(BoxScore.getUrl(game.getGameDate(), game.getHome()));
             }
-            out.append(System.lineSeparator());
         }
-        return out.toString();
+        return boxScores;
+    }
+
+    private String stageLabels(String stage, int monthNumber) {
+        return Metrics.labels("stage", stage, "season", String.valueOf(SEASON), "month", Nba.MONTHS.get(monthNumber));
+    }
+
+    private String queueLabels(String queue, int monthNumber) {
+        return Metrics.labels("queue", queue, "season", String.valueOf(SEASON), "month", Nba.MONTHS.get(monthNumber));
     }
 
 
     /**
-     * returns a string containing the contents to be written to the month file
+     * returns a string containing the contents to be written to the month file, after saving the month's
+     * game records so the next run only has to fetch games that weren't finalized by this one
+     * (the saved records replace the month's journal, which is then deleted)
      * @param monthNumber           e.g., 10 for "October"
      * @throws IOException
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
      * @return                      a <code>String</code> containing every birthday game (and birthday boy results)
      *                              in the month
      */
     public String getMonthFileContents(int monthNumber) throws IOException, InterruptedException {
-        Time.pauseExecutionIfNecessary();
-
-        // Make a URL to the web page
-        URL schedulePage = new URL("https://www.basketball-reference.com/leagues/NBA_" +
-                SEASON + "_games-" +
-                Nba.MONTHS.get(monthNumber).toLowerCase() +
-                ".html#schedule");
-
-        // Get the input stream through URL Connection
-        HttpURLConnection scheduleConnection = (HttpURLConnection) schedulePage.openConnection();
-        Time.BRUrlConnectionsThisHour++;
-        InputStream scheduleInputStream = scheduleConnection.getInputStream();
-
-        StringBuilder fileContents = new StringBuilder();
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(scheduleInputStream))) {
-            String line;
-            boolean colgroup = false;
-            int tbodyCount = 0;
-            boolean endTable = false;
-            boolean inTable;
-            // read each line
-            while ((line = br.readLine()) != null) {
-                if (line.contains("colgroup")) {
-                    colgroup = true;
-                }
-                if (line.contains("tbody")) {
-                    tbodyCount++;
-                }
-                if (colgroup && (tbodyCount >= 2)) {
-                    if (line.contains("</table>")) {
-                        endTable = true;
-                    }
-                }
-                inTable = colgroup && (tbodyCount >= 2) && !endTable;
-
-                // iterate through the list of games in that month
-                if (inTable && line.length() > 0) {
-                    // get day of the month
-                    int dayStartIndex = line.indexOf("day=") + 4;
-                    int dayEndIndex = dayStartIndex + 1;
-                    while (line.charAt(dayEndIndex) != '&') {
-                        dayEndIndex++;
-                    }
-                    int day = Integer.parseInt(line.substring(dayStartIndex, dayEndIndex));
-
-                    // set gameDate
-                    int year = SEASON;
-                    if (monthNumber > 6) {
-                        year--;
-                    }
-                    LocalDate gameDate = java.time.LocalDate.of(year, monthNumber, day);
-
-                    // get teams who played in that game: visitor and home
-                    int teamIndexStart = line.indexOf("visitor_team_name");
-                    while (!Character.isUpperCase(line.charAt(teamIndexStart))) {
-                        teamIndexStart++;
-                    }
-                    String visitor = line.substring(teamIndexStart, teamIndexStart + 3);
-                    teamIndexStart += 3;
-                    while (!Character.isUpperCase(line.charAt(teamIndexStart))) {
-                        teamIndexStart++;
-                    }
-                    String home = line.substring(teamIndexStart, teamIndexStart + 3);
-
-                    // birthdate search will be on day before gameDate
-                    LocalDate dayBeforeGame = gameDate.minusDays(1);
-                    MonthDay monthDayBeforeGame = java.time.MonthDay.of(dayBeforeGame.getMonthValue(),
-                            dayBeforeGame.getDayOfMonth());
-
-                    if (IN_SEASON_TEAM_BIRTHDAYS.get(visitor).get(monthDayBeforeGame) != null ||
-                            IN_SEASON_TEAM_BIRTHDAYS.get(home).get(monthDayBeforeGame) != null) {
-                        fileContents.append(System.lineSeparator())
-                                .append(day).append(": ")
-                                .append(visitor).append(" at ").append(home);
-
-                        // check whether the game is in the past
-                        if (java.time.LocalDate.now().isAfter(gameDate)) {
-                            String score = "";
-                            // if it is, get the game score
-                            int scoreIndexStart = line.indexOf("visitor_pts");
-                            while (line.charAt(scoreIndexStart) != '>') {
-                                scoreIndexStart++;
-                            }
-                            scoreIndexStart++;
-                            int scoreIndexStop = scoreIndexStart;
-                            while (line.charAt(scoreIndexStop) != '<') {
-                                scoreIndexStop++;
-                            }
-                            score += line.substring(scoreIndexStart, scoreIndexStop) + "-";
-
-                            scoreIndexStart = line.indexOf("home_pts");
-                            while (line.charAt(scoreIndexStart) != '>') {
-                                scoreIndexStart++;
-                            }
-                            scoreIndexStart++;
-                            scoreIndexStop = scoreIndexStart;
-                            while (line.charAt(scoreIndexStop) != '<') {
-                                scoreIndexStop++;
-                            }
-                            score += line.substring(scoreIndexStart, scoreIndexStop);
-                            // System.out.print(", " + score);
-                            fileContents.append(", ").append(score);
-                        }
-                        fileContents.append(System.lineSeparator());
+        ArrayList<GameRecord> records;
+        Metrics.Timer recordsTimer = Metrics.RUN.startStage(stageLabels("month_records", monthNumber));
+        try {
+            records = getMonthGameRecords(monthNumber);
+        }
+        finally {
+            recordsTimer.stop();
+        }
+        Metrics.Timer writeTimer = Metrics.RUN.startStage(stageLabels("month_write", monthNumber));
+        try {
+            GameRecordStore store = new GameRecordStore(SEASON);
+            store.save(monthNumber, records);
+            store.deleteJournal(monthNumber);
 
-                        // print all visitor team birthdays
-                        fileContents.append(getBirthdays(visitor, gameDate, home));
-                        // print all home team birthdays
-                        fileContents.append(getBirthdays(home, gameDate, home));
-                    }
-                }
+            StringBuilder fileContents = new StringBuilder();
+            for (GameRecord record : records) {
+                fileContents.append(record.render());
             }
+            return fileContents.toString();
+        }
+        finally {
+            writeTimer.stop();
         }
-        scheduleConnection.disconnect();
-        return fileContents.toString();
     }
 
 
@@ -326,7 +410,7 @@ public class MonthScraper {
      * creates a .txt file for monthNumber containing all birthday games
      * @param monthNumber           e.g., 10 for "October"
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
      */
     public void makeNewMonthFile(int monthNumber) throws InterruptedException {
         String path = "Season" + SEASON + "/" + Nba.MONTHS.get(monthNumber) + ".txt";
@@ -336,14 +420,10 @@ public class MonthScraper {
             // check whether the file already exists
             // if not, create it and write all the birthdays to it
             if (!file.exists()) {
-                file.createNewFile();
-                FileWriter fw = new FileWriter(file);
-                PrintWriter pw = new PrintWriter(fw);
-                // clear any old contents of the file before writing updated fileContents
-                pw.flush();
-                pw.write(getMonthFileContents(monthNumber));
-                pw.close();
-                fw.close();
+                // the file only appears once it's complete, so a failed or interrupted scrape doesn't leave an
+                // empty month behind (which would look complete to the next run)
+                String fileContents = getMonthFileContents(monthNumber);
+                GameRecordStore.publish(file.toPath(), fileContents.getBytes(StandardCharsets.UTF_8));
                 System.out.println("Created " + path);
             }
             // if the .txt file already exists...
@@ -356,13 +436,9 @@ public class MonthScraper {
                 // if it was before the end of the month, overwrite its contents
                 if (java.time.LocalDate.ofEpochDay(file.lastModified() / (long) (1000 * 60 * 60 * 24))
                         .isBefore(java.time.LocalDate.of(year, monthNumber % 12 + 1, 1))) {
-                    FileWriter fw = new FileWriter(file);
-                    PrintWriter pw = new PrintWriter(fw);
-                    // clear any old contents of the file before writing updated fileContents
-                    pw.flush();
-                    pw.write(getMonthFileContents(monthNumber));
-                    pw.close();
-                    fw.close();
+                    String fileContents = getMonthFileContents(monthNumber);
+                    // replaced all at once, so the old month survives a run that dies partway through
+                    GameRecordStore.publish(file.toPath(), fileContents.getBytes(StandardCharsets.UTF_8));
                     System.out.println("Created " + path);
                 }
                 // otherwise, do nothing
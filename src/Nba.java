@@ -1,7 +1,10 @@
 import java.io.*;
-import java.time.MonthDay;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class Nba {
     // store MONTHS in LinkedHashMap to keep entries in insertion order
@@ -53,11 +56,24 @@ public class Nba {
 
 
     /**
-     * inSeasonTeamBirthdays will map each team abbreviation (e.g., "ATL") to a corresponding map mapping
-     * birthdays to players sharing that birthday
-     * e.g., inSeasonTeamBirthdays.get("DAL") contains 03-16: Reggie Bullock (1991), Tim Hardaway Jr. (1992)
+     * inSeasonTeamBirthdays indexes each team's in-season birthdays by day of season
+     * e.g., for DAL, 03-16 holds Reggie Bullock (1991), Tim Hardaway Jr. (1992)
+     * (it's only used to list every birthday; each month being scraped gets its own index)
      */
-    private ConcurrentHashMap<String, TreeMap<MonthDay, ArrayList<String[]>>> inSeasonTeamBirthdays;
+    private BirthdayIndex inSeasonTeamBirthdays;
+
+
+    /**
+     * birthdayIndexes maps each combination of roster snapshots (one per team, in TEAMS order)
+     * to the birthday index built from it
+     */
+    private final ConcurrentHashMap<List<RosterSnapshot>, BirthdayIndex> birthdayIndexes = new ConcurrentHashMap<>();
+
+    // how often run() reports its progress while it's fetching pages
+    private static final Duration PROGRESS_REPORT_PERIOD = Duration.ofMinutes(5);
+
+    // how long a run waits for failed fetches to come due again before leaving them for the next run
+    private static final Duration MAX_RETRY_WAIT = Duration.ofMinutes(10);
 
 
     /**
@@ -75,6 +91,7 @@ public class Nba {
      *               the 2023 NBA season)
      */
     public Nba(int season) {
+        TeamHistory.checkSeason(season);
         this.SEASON = season;
     }
 
@@ -103,126 +120,75 @@ public class Nba {
      * @return the  <code>File</code> containing the best available locally saved team roster
      */
     public File findClosestRoster(String team, int month) {
-        for (int i = 0; i < 12; i++) {
-            int monthNumber = (month + (int) (Math.pow(-1, i)) * (i + 1) / 2) % 12;
-            if (monthNumber == 0) {
-                monthNumber = 12;
-            }
-            String path = "Season" + SEASON + "/TeamRosters/" + team + monthNumber + ".txt";
-            File file = new File(path);
-            if (file.exists()) {
-                return file;
-            }
-        }
-        return null;
+        // answered from the season's catalog of saved rosters, rather than by probing for each file
+        return RosterCatalog.forSeason(SEASON).findClosest(team, month);
     }
 
 
     /**
-     * sets the TreeMap<MonthDay, ArrayList<String[]>> inSeasonTeamBirthdays instance variable
-     * (where the ArrayList<String[]> is a list of playerName, birthYear tuples)
-     * to be the value for each team abbreviation (e.g., "ATL") key
+     * sets the BirthdayIndex inSeasonTeamBirthdays instance variable, which maps each team
+     * (e.g., "ATL") and day of season to the players (name, birth year) with that birthday
      */
     public void setInSeasonTeamBirthdays(int month) {
-        TEAMS.keySet().parallelStream().forEach( (team) -> {
-            Scanner trScanner;
-            try {
-                trScanner = new Scanner(findClosestRoster(team, month));
-            }
-            catch (FileNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-            // go through the Roster html table
-            while (trScanner.hasNextLine()) {
-                String line = trScanner.nextLine();
-                int index = line.indexOf("birth_date") + "birth_date\" csk=\"20001211\" >".length();
-                StringBuilder birthdayString = new StringBuilder();
-                // get player's birthday
-                while (line.charAt(index) != '<') {
-                    birthdayString.append(line.charAt(index));
-                    index++;
-                }
-                //System.out.println("birthdayString = " + birthdayString);
-                String[] monthDayYear = birthdayString.toString().split(" ");
-
-                String birthMonth = monthDayYear[0];
-                //System.out.println("birthMonth = " + birthMonth);
-
-                // only select birthdays that occur during the season
-                if (MONTHS.containsValue(birthMonth)) {
-                    int birthMonthNumber = 0;
-                    for (Map.Entry<Integer, String> entry : MONTHS.entrySet()) {
-                        if (entry.getValue().equals(birthMonth)) {
-                            birthMonthNumber = entry.getKey();
-                            //System.out.println("birthMonthNumber = " + birthMonthNumber);
-                        }
-                    }
-                    monthDayYear[1] = monthDayYear[1].substring(0,monthDayYear[1].length()-1);
-                    int birthDay = Integer.parseInt(monthDayYear[1]);
-                    //System.out.println("birthDay = " + birthDay);
+        inSeasonTeamBirthdays = getInSeasonTeamBirthdays(month);
+    }
 
-                    MonthDay birthMonthDay = java.time.MonthDay.of(birthMonthNumber, birthDay);
 
-                    String birthYear = monthDayYear[2];
-                    //System.out.println("birthYear = " + birthYear);
+    /**
+     * builds (or reuses) the birthday index for <code>month</code> from the closest roster snapshot of every team
+     * Note: months that resolve to the same 30 snapshots share one index, and each snapshot file is only
+     * ever parsed once.
+     * @param month the month in which the games are played, as an <code>int</code>
+     * @return the index of every team's in-season birthdays
+     */
+    public BirthdayIndex getInSeasonTeamBirthdays(int month) {
+        return getInSeasonTeamBirthdays(month, true);
+    }
 
-                    // get player name
-                    StringBuilder player = new StringBuilder();
-                    index = line.indexOf(".html") + ".html".length() + 2;
-                    while (line.charAt(index) != '<') {
-                        player.append(line.charAt(index));
-                        index++;
-                    }
-                    String[] newPlayerEntry = new String[]{player.toString(), birthYear};
-
-                    // if team already has a birthday TreeMap, and it contains this birthMonthDay key,
-                    // then we needn't create a new ArrayList
-                    if (inSeasonTeamBirthdays.get(team) != null && inSeasonTeamBirthdays.get(team).containsKey(birthMonthDay)) {
-                        // add the player to the (shared) birthMonthDay
-                        inSeasonTeamBirthdays.get(team).get(birthMonthDay).add(newPlayerEntry);
-                        // sort the players sharing the same birthMonthDay alphabetically
-                        // https://stackoverflow.com/questions/4699807/sort-arraylist-of-array-in-java
-                        inSeasonTeamBirthdays.get(team).get(birthMonthDay).sort(
-                                Comparator.comparing(playerEntry -> playerEntry[0])
-                        );
-                    }
-                    // otherwise, either the team has no birthday TreeMap yet, or this is a new birthMonthDay
-                    else {
-                        // either way, we need a new ArrayList containing our player
-                        ArrayList<String[]> newPlayerList = new ArrayList<>();
-                        newPlayerList.add(newPlayerEntry);
-                        // if the team has no birthday TreeMap, create one with this player's birthDayMonth mapping to our newPlayerList
-                        if (inSeasonTeamBirthdays.get(team) == null) {
-                            inSeasonTeamBirthdays.put(team, new TreeMap<>(
-                                    // set comparator to order birthMonthDays starting with season start, rather than Jan. 1
-                                    (o1, o2) -> {
-                                        int i1 = o1.getDayOfMonth();
-                                        if (o1.getMonthValue() > 6) {
-                                            i1 += o1.getMonthValue() * 100;
-                                        } else {
-                                            i1 += o1.getMonthValue() * 10000;
-                                        }
-
-                                        int i2 = o2.getDayOfMonth();
-                                        if (o2.getMonthValue() > 6) {
-                                            i2 += o2.getMonthValue() * 100;
-                                        } else {
-                                            i2 += o2.getMonthValue() * 10000;
-                                        }
-                                        return i1 - i2;
-                                    }
-                            ) {{
-                                put(birthMonthDay, newPlayerList);
-                            }});
-                        }
-                        // otherwise, add this birthdayMonth-newPlayerList mapping to the existing TreeMap
-                        else {
-                            inSeasonTeamBirthdays.get(team).put(birthMonthDay, newPlayerList);
-                        }
+
+    /**
+     * @param month          the month in which the games are played, as an <code>int</code>
+     * @param convertRosters whether roster files still saved as raw HTML rows are rewritten as they're read
+     *                       (see <code>RosterSnapshot.of</code>), which a plan, for one, mustn't do
+     * @return the index of every team's in-season birthdays (see <code>getInSeasonTeamBirthdays(int)</code>)
+     */
+    public BirthdayIndex getInSeasonTeamBirthdays(int month, boolean convertRosters) {
+        Metrics.Timer timer = Metrics.RUN.startStage(Metrics.labels("stage", "birthday_index",
+                "season", String.valueOf(SEASON), "month", MONTHS.getOrDefault(month, String.valueOf(month))));
+        try {
+            return buildInSeasonTeamBirthdays(month, convertRosters);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    private BirthdayIndex buildInSeasonTeamBirthdays(int month, boolean convertRosters) {
+        // a team with no saved roster (e.g., every fetch of it failed, or it didn't play that season) gets a null,
+        // and no birthdays
+        List<RosterSnapshot> snapshots = TEAMS.keySet().parallelStream()
+                .map(team -> {
+                    File rosterFile = findClosestRoster(team, month);
+                    return rosterFile == null ? null : RosterSnapshot.of(rosterFile, convertRosters);
+                })
+                .toList();
+        return birthdayIndexes.computeIfAbsent(snapshots, key -> {
+            BirthdayIndex.Builder builder = new BirthdayIndex.Builder();
+            int i = 0;
+            for (String team : TEAMS.keySet()) {
+                RosterSnapshot snapshot = key.get(i++);
+                if (snapshot == null) {
+                    // (franchises that didn't play that season have no roster to miss)
+                    if (TeamHistory.abbreviation(team, SEASON) == null) {
+                        continue;
                     }
+                    System.out.println("No roster is saved for " + team + " in " + SEASON +
+                            ", so its players' birthdays are left out.");
+                    continue;
                 }
+                builder.addRoster(team, snapshot);
             }
-            trScanner.close();
+            return builder.build();
         });
     }
 
@@ -234,19 +200,25 @@ public class Nba {
      */
     public String inSeasonTeamBirthdaysToString(String teamAbbreviation) {
         StringBuilder str = new StringBuilder(teamAbbreviation + " birthdays:" + System.lineSeparator());
-        // loop through a team's list of birthMonthDays (in season)
-        for (Map.Entry<MonthDay, ArrayList<String[]>> entry : inSeasonTeamBirthdays.get(teamAbbreviation).entrySet()) {
-            // add the MonthDay to str in the form MM-DD
-            str.append(entry.getKey().toString().substring(2)).append(": ");
-            for (int i=0; i < entry.getValue().size() - 1; i++) {
-                // add "playerName (birthYear), " to str
-                str.append(entry.getValue().get(i)[0]).append(" (").append(entry.getValue().get(i)[1]).append("), ");
+        int team = BirthdayIndex.teamNumber(teamAbbreviation);
+        // loop through a team's birthdays (in season order)
+        for (int day = inSeasonTeamBirthdays.nextBirthday(team, 0); day != -1;
+             day = inSeasonTeamBirthdays.nextBirthday(team, day + 1)) {
+            // add the day to str in the form MM-DD
+            int monthNumber = BirthdayIndex.monthOfDay(day);
+            int dayOfMonth = BirthdayIndex.dayOfMonthOfDay(day);
+            str.append(monthNumber < 10 ? "0" : "").append(monthNumber).append("-")
+                    .append(dayOfMonth < 10 ? "0" : "").append(dayOfMonth).append(": ");
+            int playerCount = inSeasonTeamBirthdays.playerCount(team, day);
+            for (int i = 0; i < playerCount; i++) {
+                // add "playerName (birthYear)" to str, separated by ", "
+                PlayerBirthday player = inSeasonTeamBirthdays.getPlayer(team, day, i);
+                str.append(player.getName()).append(" (").append(player.getBirthYear()).append(")");
+                if (i != playerCount - 1) {
+                    str.append(", ");
+                }
             }
-            // add the last "playerName (birthYear)" to str, and start a new line
-            str.append(entry.getValue().get(entry.getValue().size() - 1)[0])
-                    .append(" (")
-                    .append(entry.getValue().get(entry.getValue().size() - 1)[1])
-                    .append(")").append(System.lineSeparator());
+            str.append(System.lineSeparator());
         }
         return str.toString();
     }
@@ -274,8 +246,9 @@ public class Nba {
             PrintWriter pw = new PrintWriter(fw);
             // clear any old contents of the file before writing updated fileContents
             pw.flush();
-            for (String team : TEAMS.keySet()) {
-                pw.write(inSeasonTeamBirthdaysToString(team) + System.lineSeparator());
+            for (String team : TeamHistory.teams(SEASON)) {
+                pw.write(inSeasonTeamBirthdaysToString(TeamHistory.abbreviation(team, SEASON)) +
+                        System.lineSeparator());
             }
             pw.close();
             fw.close();
@@ -297,14 +270,27 @@ public class Nba {
      *      saves new team roster files if necessary/desired,
      *      determines which month files to write,
      *      writes all those files using the best available team roster data,
+     *      retries any pages that couldn't be fetched (see <code>RetryQueue</code>),
      *      make a new file containing all in-season birthdays for all teams, and
      *      saves birthday-game statistics to a local file.
+     * Progress is reported every few minutes while pages are being fetched, and the run's metrics are saved
+     * to Metrics.prom (in the season's directory) at the end.
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
      */
     public void run() throws InterruptedException {
+        Metrics.RUN.startProgressReports(PROGRESS_REPORT_PERIOD);
+        try {
+            runInteractively();
+        }
+        finally {
+            Metrics.RUN.stopProgressReports();
+            Metrics.RUN.writeTo(Paths.get("Season" + SEASON, "Metrics.prom"));
+        }
+    }
+
+    private void runInteractively() throws InterruptedException {
         printWelcome();
-        inSeasonTeamBirthdays = new ConcurrentHashMap<>();
 
         // check which month files are already locally saved
         MonthChecker mc = new MonthChecker(SEASON);
@@ -327,15 +313,11 @@ public class Nba {
         // determine which month files to write (or overwrite)
         mc.setMonthsToFetch();
 
-        if(!mc.getMonthsToFetch().isEmpty()) {
-            // write all those files, using the best available team roster data
-            for (int month : mc.getMonthsToFetch()) {
-                setInSeasonTeamBirthdays(month);
-                MonthScraper ms = new MonthScraper(SEASON, inSeasonTeamBirthdays);
-                ms.makeNewMonthFile(month);
-            }
-            System.out.println("Done.");
-        }
+        // write all those files, using the best available team roster data
+        makeMonthFiles(mc.getMonthsToFetch());
+
+        // retry the pages that couldn't be fetched (on this run or an earlier one), patching in what they hold
+        new RetryQueue(SEASON).retryDue(MAX_RETRY_WAIT);
 
         // make a new file containing all in-season birthdays for all teams
         makeAllInSeasonBirthdaysAllTeamsFile();
@@ -344,4 +326,97 @@ public class Nba {
         Statistics stats = new Statistics(SEASON);
         stats.run();
     }
-}
\ No newline at end of file
+
+
+    /**
+     * does everything <code>run()</code> does, but without asking the user anything, so that many seasons
+     * can be run side by side (see <code>Backfill</code>):
+     *      rosters are only scraped for teams that have none saved,
+     *      every missing or partial month file is (re)written, and
+     *      statistics are always saved.
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    public void runUnattended() throws InterruptedException {
+        printWelcome();
+
+        MonthChecker mc = new MonthChecker(SEASON);
+        mc.setMissingMonths();
+        mc.setPartialMonths();
+        mc.setCompletedMonths();
+
+        TeamChecker tc = new TeamChecker(SEASON);
+        tc.setAllTeamRosters();
+        tc.setNewWebScrapeNeededIfMissing();
+        if (tc.isNewWebScrapeNeeded()) {
+            TeamScraper ts = new TeamScraper(SEASON);
+            ts.makeNewTeamRosterFiles();
+        }
+
+        mc.setAllIncompleteMonthsToFetch();
+        makeMonthFiles(mc.getMonthsToFetch());
+        new RetryQueue(SEASON).retryDue(MAX_RETRY_WAIT);
+
+        makeAllInSeasonBirthdaysAllTeamsFile();
+
+        Statistics stats = new Statistics(SEASON);
+        stats.makeStatisticsFile();
+    }
+
+
+    /**
+     * writes a birthday-game file for each of <code>months</code>, using the best available team roster data
+     * The months are scraped side by side (as tasks on <code>PageFetcher.ioExecutor()</code>, which uses virtual
+     * threads where the JDK offers them), each with its own birthday index, and each month's file is written as
+     * soon as that month is done. So while one month waits on the request budget, another can parse, render, and
+     * write, and catching up on several months takes about as long as their requests alone.
+     * A month that fails doesn't stop the others; once they're all done, the first failure is rethrown.
+     * @param months the month numbers to write, e.g., [10, 11]
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    private void makeMonthFiles(List<Integer> months) throws InterruptedException {
+        if (!months.isEmpty()) {
+            // months spend nearly all their time waiting on the request budget, so they share the fetch executor
+            // rather than each season starting a pool of its own
+            ArrayList<Future<?>> monthFiles = new ArrayList<>();
+            for (int month : months) {
+                monthFiles.add(PageFetcher.ioExecutor().submit(() -> {
+                    MonthScraper ms = new MonthScraper(SEASON, getInSeasonTeamBirthdays(month));
+                    ms.makeNewMonthFile(month);
+                    return null;
+                }));
+            }
+
+            Throwable failure = null;
+            try {
+                for (Future<?> monthFile : monthFiles) {
+                    try {
+                        monthFile.get();
+                    }
+                    catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                for (Future<?> monthFile : monthFiles) {
+                    monthFile.cancel(true);
+                }
+                throw e;
+            }
+            if (failure instanceof InterruptedException) {
+                throw (InterruptedException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure != null) {
+                throw new RuntimeException(failure);
+            }
+            System.out.println("Done.");
+        }
+    }
+}
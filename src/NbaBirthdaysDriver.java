@@ -1,8 +1,106 @@
-public class NbaBirthdaysDriver {
-    public static void main(String[] args) throws InterruptedException {
-
-        Nba nbaSeason = new Nba(2022);
-        nbaSeason.run();
-
-    }
-}
\ No newline at end of file
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class NbaBirthdaysDriver {
+    // how often "--serve" checks for files saved by other runs
+    private static final Duration SERVE_REFRESH_PERIOD = Duration.ofMinutes(1);
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        HashMap<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--reports") || args[i].equals("--dry-run") || args[i].equals("--convert-rosters")) {
+                options.put(args[i], "");
+            }
+            else if (i + 1 < args.length) {
+                options.put(args[i], args[++i]);
+            }
+            else {
+                throw new IllegalArgumentException("missing a value for " + args[i]);
+            }
+        }
+
+        // e.g., "--record Recordings/2023" saves every page the run opens, so it can be replayed later
+        if (options.containsKey("--record")) {
+            PageFetcher.recordTo(new PageCache(Paths.get(options.get("--record"))));
+        }
+
+        // e.g., "--replay Recordings/2023 --latency 50 --error-rate 0.01 --truncate-rate 0.01 --rate-limit 30/60"
+        // serves a recording from a local stand-in for basketball-reference.com instead of scraping the site
+        ReplayServer replayServer = null;
+        if (options.containsKey("--replay")) {
+            String[] rateLimit = options.getOrDefault("--rate-limit", "0/1").split("/");
+            replayServer = new ReplayServer(new PageCache(Paths.get(options.get("--replay"))),
+                    Duration.ofMillis(Long.parseLong(options.getOrDefault("--latency", "0"))),
+                    Double.parseDouble(options.getOrDefault("--error-rate", "0")),
+                    Double.parseDouble(options.getOrDefault("--truncate-rate", "0")),
+                    Integer.parseInt(rateLimit[0]),
+                    Duration.ofSeconds(Long.parseLong(rateLimit[1])));
+            PageFetcher.replayFrom(replayServer.start());
+        }
+
+        try {
+            // e.g., "--dry-run --backfill 1984-2023" prints the requests the backfill would make, and how long the
+            // request budget would make it take, without fetching or writing anything
+            if (options.containsKey("--dry-run")) {
+                ArrayList<Integer> seasons = new ArrayList<>();
+                String[] range = options.getOrDefault("--backfill", "2022").split("-");
+                for (int season = Integer.parseInt(range[0]); season <= Integer.parseInt(range[range.length - 1]);
+                     season++) {
+                    seasons.add(season);
+                }
+                FetchPlanner planner = new FetchPlanner(seasons, PageCache.SHARED,
+                        RequestScheduler.BASKETBALL_REFERENCE);
+                planner.plan();
+                planner.printPlan(true);
+            }
+            // e.g., "--serve 8080" answers birthday queries (as JSON) from every saved season until it's stopped,
+            // picking up the files later runs save
+            else if (options.containsKey("--serve")) {
+                QueryServer queryServer = new QueryServer(Integer.parseInt(options.get("--serve")),
+                        SERVE_REFRESH_PERIOD);
+                int port = queryServer.start();
+                System.out.println("Answering birthday queries at http://localhost:" + port + "/ (e.g., " +
+                        "/games?date=" + Time.today + ", /games?team=ATL, /players?name=Trae%20Young)");
+                // the server's threads are daemons, so the program runs until it's killed
+                Thread.currentThread().join();
+            }
+            // e.g., "--compress-cache Recordings/2023" gzips every page a page cache (or recording) saved before
+            // pages were compressed
+            else if (options.containsKey("--compress-cache")) {
+                PageCache pages = new PageCache(Paths.get(options.get("--compress-cache")));
+                System.out.println("Compressed " + pages.compressAll() + " pages.");
+            }
+            // "--convert-rosters" rewrites every roster file still saved as raw HTML rows, one line per player
+            // (otherwise, each one is converted the first time it's read)
+            else if (options.containsKey("--convert-rosters")) {
+                System.out.println("Converted " + RosterFile.convertAll() + " roster files.");
+            }
+            // e.g., "--backfill 1984-2023" rebuilds every season from 1983-84 through 2022-23 in one job
+            else if (options.containsKey("--backfill")) {
+                String[] seasons = options.get("--backfill").split("-");
+                Backfill backfill = new Backfill(Integer.parseInt(seasons[0]),
+                        Integer.parseInt(seasons[seasons.length - 1]));
+                backfill.run();
+            }
+            // "--reports" breaks down the results of every season already saved (by age, team, etc.)
+            // without scraping
+            else if (options.containsKey("--reports")) {
+                GroupedStatistics.forSeasons(GroupedStatistics.findSeasons()).makeReportFiles();
+            }
+            else {
+                Nba nbaSeason = new Nba(2022);
+                nbaSeason.run();
+            }
+        }
+        finally {
+            if (replayServer != null) {
+                System.out.println(replayServer.summary());
+                replayServer.stop();
+            }
+        }
+
+    }
+}
@@ -0,0 +1,252 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class PageCache {
+    /**
+     * shared by every fetch, so a page downloaded for one season/month is never downloaded again
+     * while it is still fresh
+     */
+    public static final PageCache SHARED = new PageCache(Paths.get("PageCache"));
+
+    private final Path INDEX_DIRECTORY;
+    private final Path OBJECT_DIRECTORY;
+
+
+    /**
+     * Class constructor
+     * @param directory where cached pages are kept: <code>index/</code> holds one small properties file per URL,
+     *                  and <code>objects/</code> holds page bodies named by the SHA-256 of their contents,
+     *                  gzipped (bodies cached before pages were compressed are read as they are)
+     */
+    public PageCache(Path directory) {
+        this.INDEX_DIRECTORY = directory.resolve("index");
+        this.OBJECT_DIRECTORY = directory.resolve("objects");
+    }
+
+
+    /**
+     * a cached response: where its body lives and what we need to revalidate it
+     */
+    public static class Entry {
+        private final String URL;
+        private final Path BODY;
+        private final String ETAG;
+        private final String LAST_MODIFIED;
+        private final long FETCHED_AT_MILLIS;
+
+        private Entry(String url, Path body, String etag, String lastModified, long fetchedAtMillis) {
+            this.URL = url;
+            this.BODY = body;
+            this.ETAG = etag;
+            this.LAST_MODIFIED = lastModified;
+            this.FETCHED_AT_MILLIS = fetchedAtMillis;
+        }
+
+        /**
+         * @return where the body is kept (gzipped, unless it was cached before pages were compressed; use
+         *         <code>open</code> or <code>readBody</code> to read it)
+         */
+        public Path getBody() { return BODY; }
+
+
+        /**
+         * @return the page body, decompressed as it's read
+         * @throws IOException if the body cannot be opened
+         */
+        public InputStream open() throws IOException {
+            return decompress(Files.newInputStream(BODY));
+        }
+
+
+        /**
+         * @return the whole page body, decompressed
+         * @throws IOException if the body cannot be read
+         */
+        public byte[] readBody() throws IOException {
+            try (InputStream body = open()) {
+                return body.readAllBytes();
+            }
+        }
+
+        public String getEtag() { return ETAG; }
+
+        public String getLastModified() { return LAST_MODIFIED; }
+
+        public long getFetchedAtMillis() { return FETCHED_AT_MILLIS; }
+    }
+
+
+    /**
+     * @param url the page's URL
+     * @return the cached response for <code>url</code>, or <code>null</code> if there is none
+     *         (or its body has gone missing)
+     * @throws IOException if the index file cannot be read
+     */
+    public Entry lookup(String url) throws IOException {
+        Path indexFile = INDEX_DIRECTORY.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)));
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(indexFile)) {
+            properties.load(in);
+        }
+        Path body = objectPath(properties.getProperty("body"));
+        if (!Files.exists(body)) {
+            return null;
+        }
+        return new Entry(url, body,
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"),
+                Long.parseLong(properties.getProperty("fetchedAt")));
+    }
+
+
+    /**
+     * saves a freshly downloaded page (gzipped)
+     * @param url          the page's URL
+     * @param body         the response body, decoded
+     * @param etag         the response's ETag header (may be <code>null</code>)
+     * @param lastModified the response's Last-Modified header (may be <code>null</code>)
+     * @return the new cache entry
+     * @throws IOException if the page cannot be written
+     */
+    public Entry store(String url, byte[] body, String etag, String lastModified) throws IOException {
+        String bodyHash = sha256(body);
+        Path object = objectPath(bodyHash);
+        // identical bodies (e.g., a revalidated page that didn't actually change) are stored only once
+        if (!Files.exists(object)) {
+            writeAtomically(object, compress(body));
+        }
+        return writeIndex(new Entry(url, object, etag, lastModified, System.currentTimeMillis()), bodyHash);
+    }
+
+
+    /**
+     * records that basketball-reference.com confirmed (HTTP 304) our cached copy is still current
+     * @param entry the revalidated entry
+     * @return the entry, with its fetch time reset to now
+     * @throws IOException if the index file cannot be written
+     */
+    public Entry refresh(Entry entry) throws IOException {
+        return writeIndex(new Entry(entry.URL, entry.BODY, entry.ETAG, entry.LAST_MODIFIED,
+                System.currentTimeMillis()), entry.BODY.getFileName().toString());
+    }
+
+    /**
+     * forgets a cached page (e.g., one that turned out to be cut off), so the next fetch downloads it again
+     * Its body is left in <code>objects/</code>, since identical pages share one.
+     * @param url the page's URL (nothing happens if it isn't cached)
+     * @throws IOException if the index file cannot be deleted
+     */
+    public void evict(String url) throws IOException {
+        Files.deleteIfExists(INDEX_DIRECTORY.resolve(sha256(url.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private Entry writeIndex(Entry entry, String bodyHash) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("url", entry.URL);
+        properties.setProperty("body", bodyHash);
+        properties.setProperty("fetchedAt", Long.toString(entry.FETCHED_AT_MILLIS));
+        if (entry.ETAG != null) {
+            properties.setProperty("etag", entry.ETAG);
+        }
+        if (entry.LAST_MODIFIED != null) {
+            properties.setProperty("lastModified", entry.LAST_MODIFIED);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.store(out, null);
+        writeAtomically(INDEX_DIRECTORY.resolve(sha256(entry.URL.getBytes(StandardCharsets.UTF_8))),
+                out.toByteArray());
+        return entry;
+    }
+
+    /**
+     * gzips every page body in the cache that was saved before pages were compressed
+     * (e.g., an old <code>PageCache</code> or recording), in place
+     * @return how many bodies were compressed
+     * @throws IOException if a body cannot be read or rewritten
+     */
+    public int compressAll() throws IOException {
+        if (!Files.isDirectory(OBJECT_DIRECTORY)) {
+            return 0;
+        }
+        int compressed = 0;
+        try (DirectoryStream<Path> fanOut = Files.newDirectoryStream(OBJECT_DIRECTORY, Files::isDirectory)) {
+            for (Path directory : fanOut) {
+                try (DirectoryStream<Path> objects = Files.newDirectoryStream(directory, "[0-9a-f]*")) {
+                    for (Path object : objects) {
+                        if (object.getFileName().toString().endsWith(".tmp") || isGzipped(object)) {
+                            continue;
+                        }
+                        writeAtomically(object, compress(Files.readAllBytes(object)));
+                        compressed++;
+                    }
+                }
+            }
+        }
+        return compressed;
+    }
+
+
+    /**
+     * @param body a page body, as kept in the cache
+     * @return the body, decompressed as it's read if it was gzipped (otherwise as it is)
+     * @throws IOException if the body cannot be read
+     */
+    public static InputStream decompress(InputStream body) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(body);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        // an HTML page never starts with gzip's magic number
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    private static boolean isGzipped(Path object) throws IOException {
+        try (InputStream in = Files.newInputStream(object)) {
+            return in.read() == (GZIPInputStream.GZIP_MAGIC & 0xff) && in.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+        }
+    }
+
+    private static byte[] compress(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private Path objectPath(String hash) {
+        // fan out by the first two hex digits so no single directory gets too large
+        return OBJECT_DIRECTORY.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // write to a temporary file first, so a crash never leaves a half-written page behind
+    private static void writeAtomically(Path path, byte[] contents) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        Files.write(temp, contents);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
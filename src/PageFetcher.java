@@ -0,0 +1,358 @@
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class PageFetcher {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    // the deadline for a whole request, from sending it to reading the last byte of the page
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    // the compressed encodings decode knows
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * runs blocking fetches (and the <code>RequestScheduler</code> waits in front of them), so they never tie up
+     * the common ForkJoinPool that parallel streams share
+     * Virtual threads are used where the JDK offers them (21+), since fetches spend nearly all their time
+     * waiting; otherwise, a pool of daemon threads created as needed.
+     */
+    private static final ExecutorService IO_EXECUTOR = newIoExecutor();
+    // cuts off response bodies still coming in at REQUEST_TIMEOUT (see readBody)
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fetch-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // one client for every fetch, so connections to basketball-reference.com are kept alive and reused
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(IO_EXECUTOR)
+            .build();
+
+    // every page URL the scrapers build starts with this
+    private static final String SITE = "https://www.basketball-reference.com";
+
+    // where fetched pages are cached (null to always fetch), and how requests are paced
+    private static volatile PageCache cache = PageCache.SHARED;
+    private static volatile RequestScheduler scheduler = RequestScheduler.BASKETBALL_REFERENCE;
+    // when set, every page is requested from this server (e.g., "http://127.0.0.1:50123") instead of SITE
+    private static volatile String siteOverride = null;
+    // when set, every page the run opens (fetched or served from the cache) is also saved here
+    private static volatile PageCache recording = null;
+
+
+    /**
+     * opens a basketball-reference.com page, serving it from the <code>PageCache</code> whenever
+     * <code>policy</code> allows, and otherwise revalidating or downloading it
+     * (which costs a <code>RequestScheduler</code> permit)
+     * See <code>recordTo</code> and <code>replayFrom</code> for saving pages and serving them back.
+     * @param url    the page's URL
+     * @param policy how long a cached copy of this kind of page stays fresh
+     * @return the page body
+     * @throws IOException if the page cannot be fetched or cached (including timeouts, and HTTP errors,
+     *                     which are thrown as an <code>HttpStatusException</code>)
+     * @throws InterruptedException since this may scrape data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    public static InputStream open(String url, CachePolicy policy) throws IOException, InterruptedException {
+        try {
+            return openPage(url, policy);
+        }
+        finally {
+            // failed pages count too, since the run won't be opening them again
+            Metrics.RUN.pageOpened();
+        }
+    }
+
+    private static InputStream openPage(String url, CachePolicy policy) throws IOException, InterruptedException {
+        String type = pageType(url);
+        PageCache cache = PageFetcher.cache;
+        PageCache.Entry cached = cache == null ? null : cache.lookup(url);
+        if (cached != null && policy.isFresh(cached.getFetchedAtMillis())) {
+            countRequest(type, "cache_hit");
+            record(url, cached);
+            return cached.open();
+        }
+
+        String site = siteOverride;
+        URI page = URI.create(site != null && url.startsWith(SITE) ? site + url.substring(SITE.length()) : url);
+        HttpRequest.Builder request = HttpRequest.newBuilder(page)
+                .timeout(REQUEST_TIMEOUT)
+                // pages are mostly markup, so they come down several times smaller compressed
+                .header("Accept-Encoding", ACCEPT_ENCODING)
+                .GET();
+        // ask basketball-reference.com to only send the page if it changed since we cached it
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                request.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                request.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        long waitStart = System.nanoTime();
+        scheduler.acquire(page.getHost());
+        Metrics.RUN.observe("nba_throttle_wait_seconds", "Time spent waiting for a request budget permit.",
+                Metrics.labels("type", type), System.nanoTime() - waitStart);
+
+        HttpResponse<InputStream> response;
+        byte[] body;
+        long requestStart = System.nanoTime();
+        try {
+            response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            body = readBody(url, type, response, requestStart);
+        }
+        catch (IOException e) {
+            // timeouts, dropped connections, truncated bodies, a gzipped page cut off partway through, ...
+            countRequest(type, "error");
+            throw e;
+        }
+        finally {
+            Metrics.RUN.observe("nba_fetch_duration_seconds", "Time from sending a request to reading its body.",
+                    Metrics.labels("type", type), System.nanoTime() - requestStart);
+        }
+
+        if (cached != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            countRequest(type, "not_modified");
+            cache.refresh(cached);
+            record(url, cached);
+            return cached.open();
+        }
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            // e.g., "http_429"
+            countRequest(type, "http_" + response.statusCode());
+            Duration retryAfter = HttpStatusException.parseRetryAfter(
+                    response.headers().firstValue("Retry-After").orElse(null));
+            // a server that says when to come back (e.g., after a 429) gets no more requests until then
+            if (retryAfter != null) {
+                scheduler.pause(page.getHost(), retryAfter);
+            }
+            throw new HttpStatusException(url, response.statusCode(), retryAfter);
+        }
+        countRequest(type, "ok");
+        Metrics.RUN.add("nba_fetch_decoded_bytes_total", "Page bytes received, once decompressed.",
+                Metrics.labels("type", type), body.length);
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (cache != null) {
+            cache.store(url, body, etag, lastModified);
+        }
+        if (recording != null) {
+            recording.store(url, body, etag, lastModified);
+        }
+        return new ByteArrayInputStream(body);
+    }
+
+
+    /**
+     * drops a page from the <code>PageCache</code> once it turns out to be unusable (e.g., a box score that was
+     * cut off, which <code>CachePolicy.forBoxScorePage</code> would otherwise serve forever), so it's
+     * downloaded again the next time it's opened
+     * @param url the page's URL
+     * @throws IOException if the cache entry cannot be deleted
+     */
+    public static void evict(String url) throws IOException {
+        PageCache cache = PageFetcher.cache;
+        if (cache != null) {
+            cache.evict(url);
+        }
+    }
+
+
+    /**
+     * reads a response's body, decoding a page (e.g., gunzipping it) as it comes in, so that only the decoded
+     * page is ever held in memory
+     * The body of any other response (e.g., a 304 or a 429) is read and dropped.
+     * @param url          the page that was requested
+     * @param type         the page's type, for metrics, e.g., "box_score"
+     * @param response     the response, with its body still to be read
+     * @param requestStart when the request was sent (<code>System.nanoTime()</code>), which REQUEST_TIMEOUT
+     *                     counts from: a body still coming in then is cut off
+     * @return the decoded page, or <code>null</code> if the response wasn't a 200
+     * @throws IOException if the body is cut off, can't be decoded, or takes too long
+     */
+    private static byte[] readBody(String url, String type, HttpResponse<InputStream> response, long requestStart)
+            throws IOException {
+        CountingInputStream sent = new CountingInputStream(response.body());
+        // the client's timeout only covers waiting for the headers; closing the body wakes a stalled read
+        long remainingNanos = REQUEST_TIMEOUT.toNanos() - (System.nanoTime() - requestStart);
+        ScheduledFuture<?> deadline = DEADLINES.schedule(() -> {
+            try {
+                sent.close();
+            }
+            catch (IOException e) {
+                // the read it was meant to stop fails either way
+            }
+        }, Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        try (sent) {
+            if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                sent.transferTo(OutputStream.nullOutputStream());
+                return null;
+            }
+            try (InputStream decoded = decode(sent, response.headers().firstValue("Content-Encoding")
+                    .orElse("identity"))) {
+                return decoded.readAllBytes();
+            }
+        }
+        catch (IOException e) {
+            if (deadline.cancel(false)) {
+                throw e;
+            }
+            throw new HttpTimeoutException("Timed out reading " + url + " after " + REQUEST_TIMEOUT.toSeconds() + "s");
+        }
+        finally {
+            deadline.cancel(false);
+            Metrics.RUN.add("nba_fetch_bytes_total", "Page bytes received (as sent, e.g., gzipped).",
+                    Metrics.labels("type", type), sent.getCount());
+        }
+    }
+
+
+    // counts the bytes read through it
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        private long getCount() { return count; }
+    }
+
+
+    /**
+     * @param body            a response body, as sent
+     * @param contentEncoding the response's Content-Encoding header, e.g., "gzip"
+     * @return the body, decoded as it's read
+     * @throws IOException if the body was encoded some way we didn't ask for
+     */
+    static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        switch (contentEncoding.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(body);
+            case "deflate":
+                // meant to be zlib-wrapped, but some servers send a raw deflate stream
+                BufferedInputStream buffered = new BufferedInputStream(body);
+                buffered.mark(2);
+                int first = buffered.read();
+                int second = buffered.read();
+                buffered.reset();
+                boolean zlib = (first & 0x0f) == 8 && ((first << 8) | second) % 31 == 0;
+                return new InflaterInputStream(buffered, new Inflater(!zlib));
+            case "identity":
+            case "":
+                return body;
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+
+    /**
+     * saves every page opened from now on to <code>recording</code> (which a <code>ReplayServer</code>
+     * can later serve), on top of caching it as usual
+     * @param recording e.g., <code>new PageCache(Paths.get("Recordings/2023"))</code>
+     */
+    public static void recordTo(PageCache recording) {
+        PageFetcher.recording = recording;
+    }
+
+
+    /**
+     * sends every request from now on to a stand-in for basketball-reference.com (e.g., a
+     * <code>ReplayServer</code>) instead, with no page cache in front of it and no request budget,
+     * so that every page of a run is actually requested (and the server decides how fast it's served)
+     * @param site the stand-in's address, e.g., "http://127.0.0.1:50123"
+     */
+    public static void replayFrom(String site) {
+        siteOverride = site;
+        cache = null;
+        scheduler = RequestScheduler.UNLIMITED;
+    }
+
+    /**
+     * @return the kind of page, for metrics: "schedule", "box_score", "team", "league", or "other"
+     */
+    static String pageType(String url) {
+        if (url.contains("/boxscores/")) {
+            return "box_score";
+        }
+        if (url.contains("/teams/")) {
+            return "team";
+        }
+        if (url.contains("_games-")) {
+            return "schedule";
+        }
+        if (url.contains("/leagues/")) {
+            return "league";
+        }
+        return "other";
+    }
+
+    private static void countRequest(String type, String outcome) {
+        Metrics.RUN.add("nba_fetch_requests_total", "Pages opened, by page type and outcome.",
+                Metrics.labels("type", type, "outcome", outcome), 1);
+    }
+
+    private static void record(String url, PageCache.Entry cached) throws IOException {
+        if (recording != null) {
+            recording.store(url, cached.readBody(), cached.getEtag(), cached.getLastModified());
+        }
+    }
+
+
+    /**
+     * @return the executor that blocking fetches should run on (e.g., one task per team in <code>TeamScraper</code>)
+     */
+    public static ExecutorService ioExecutor() {
+        return IO_EXECUTOR;
+    }
+
+    private static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "page-fetcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
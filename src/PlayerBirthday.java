@@ -0,0 +1,42 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PlayerBirthday {
+    // every index shares one instance per player, no matter how many rosters (or seasons) he appears on
+    private static final ConcurrentHashMap<String, PlayerBirthday> INTERNED = new ConcurrentHashMap<>();
+
+    private final String ID;
+    private final String NAME;
+    private final int BIRTH_YEAR;
+
+
+    /**
+     * Class constructor
+     * @param id        the player's basketball-reference.com id, e.g., "youngtr01"
+     * @param name      the player's name, e.g., "Trae Young"
+     * @param birthYear e.g., 1998
+     */
+    private PlayerBirthday(String id, String name, int birthYear) {
+        this.ID = id;
+        this.NAME = name;
+        this.BIRTH_YEAR = birthYear;
+    }
+
+
+    /**
+     * @param id        the player's basketball-reference.com id, e.g., "youngtr01", or an empty String if the
+     *                  roster didn't have one
+     * @param name      the player's name, e.g., "Trae Young"
+     * @param birthYear e.g., 1998
+     * @return the shared record for this player
+     */
+    public static PlayerBirthday of(String id, String name, int birthYear) {
+        return INTERNED.computeIfAbsent(id + " " + name + " " + birthYear,
+                key -> new PlayerBirthday(id, name, birthYear));
+    }
+
+    public String getId() { return ID; }
+
+    public String getName() { return NAME; }
+
+    public int getBirthYear() { return BIRTH_YEAR; }
+}
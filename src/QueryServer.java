@@ -0,0 +1,258 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class QueryServer {
+    private final int PORT;
+    // how often the saved files are checked for changes
+    private final Duration REFRESH_PERIOD;
+
+    /**
+     * the queries every request is answered from
+     * A refresh loads a whole new <code>BirthdayQueries</code> and swaps it in, so a request never waits on a
+     * lock, and never sees a half-loaded one.
+     */
+    private final AtomicReference<BirthdayQueries> snapshot = new AtomicReference<>();
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ScheduledExecutorService refresher;
+
+
+    /**
+     * Class constructor
+     * @param port          the port to answer queries on, e.g., 8080 (0 for any free port)
+     * @param refreshPeriod how often to check whether a run has saved newer files, and load them if it has
+     */
+    public QueryServer(int port, Duration refreshPeriod) {
+        this.PORT = port;
+        this.REFRESH_PERIOD = refreshPeriod;
+    }
+
+
+    /**
+     * loads every saved season, then answers these queries with JSON until it's stopped:
+     *      /games?date=2023-03-01              the birthday games on a date (e.g., tonight)
+     *      /games?team=ATL&amp;season=2023     a team's birthday games in a season (the latest saved, by default)
+     *      /players?id=youngtr01               a player's birthday-game history (or ?name=Trae%20Young)
+     *      /birthdays?date=2023-03-01          every rostered player whose birthday it is
+     *      /status                             which seasons are loaded, and when they were
+     * @return the port the server is listening on
+     * @throws IOException if the saved files cannot be read, or the server cannot be started
+     */
+    public int start() throws IOException {
+        snapshot.set(BirthdayQueries.load());
+
+        // answers are a single small write, so they shouldn't sit out the client's delayed ACK (about 40 ms)
+        // waiting for Nagle's algorithm (read when the JDK's server first starts, so it's set beforehand)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(PORT), 0);
+        server.createContext("/games", exchange -> handle(exchange, this::games));
+        server.createContext("/players", exchange -> handle(exchange, this::players));
+        server.createContext("/birthdays", exchange -> handle(exchange, this::birthdays));
+        server.createContext("/status", exchange -> handle(exchange, this::status));
+        handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "query-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlers);
+        server.start();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "query-server-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, REFRESH_PERIOD.toMillis(), REFRESH_PERIOD.toMillis(),
+                TimeUnit.MILLISECONDS);
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * stops answering queries
+     */
+    public void stop() {
+        refresher.shutdownNow();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+
+    /**
+     * loads the saved files again if any of them has changed since they were last loaded, and swaps the result
+     * in for every query from then on (queries already being answered finish with the old one)
+     * @return whether newer files were loaded
+     */
+    public boolean refresh() {
+        try {
+            if (BirthdayQueries.fingerprint() == snapshot.get().getFingerprint()) {
+                return false;
+            }
+            BirthdayQueries queries = BirthdayQueries.load();
+            snapshot.set(queries);
+            System.out.println("Loaded " + queries.getGameCount() + " birthday games from the " +
+                    queries.getSeasons() + " seasons.");
+            return true;
+        }
+        catch (IOException | RuntimeException e) {
+            // keep answering from what's loaded, and try again next time
+            System.out.println("The saved files couldn't be loaded again: " + e);
+            return false;
+        }
+    }
+
+
+    // answers a query (with JSON) from the loaded queries and the query's parameters
+    private interface Query {
+        String answer(BirthdayQueries queries, HashMap<String, String> parameters);
+    }
+
+    // thrown by a query whose parameters don't make sense, to answer it with a 400
+    private static class BadQueryException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BadQueryException(String message) {
+            super(message);
+        }
+    }
+
+
+    private void handle(HttpExchange exchange, Query query) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, -1);
+                return;
+            }
+            int status = HttpURLConnection.HTTP_OK;
+            String json;
+            try {
+                json = query.answer(snapshot.get(), parseQuery(exchange.getRequestURI().getRawQuery()));
+            }
+            catch (BadQueryException e) {
+                status = HttpURLConnection.HTTP_BAD_REQUEST;
+                json = "{\"error\":" + BirthdayQueries.quote(e.getMessage()) + "}";
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    // e.g., "team=ATL&season=2023" -> {team=ATL, season=2023}
+    private static HashMap<String, String> parseQuery(String rawQuery) {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        }
+        catch (DateTimeParseException e) {
+            throw new BadQueryException("date must be like 2023-03-01");
+        }
+    }
+
+
+    private String games(BirthdayQueries queries, HashMap<String, String> parameters) {
+        if (parameters.containsKey("date")) {
+            LocalDate date = parseDate(parameters.get("date"));
+            return "{\"date\":" + BirthdayQueries.quote(date.toString()) +
+                    ",\"games\":" + queries.getGames(date) + "}";
+        }
+        String team = parameters.get("team");
+        if (team == null) {
+            throw new BadQueryException("give a date or a team");
+        }
+        team = team.toUpperCase();
+        // any abbreviation the franchise has gone by, e.g., "SEA" or "OKC"
+        String franchise = TeamHistory.franchise(team);
+        if (franchise == null) {
+            throw new BadQueryException("unknown team " + team);
+        }
+        int season;
+        if (parameters.containsKey("season")) {
+            try {
+                season = Integer.parseInt(parameters.get("season"));
+            }
+            catch (NumberFormatException e) {
+                throw new BadQueryException("season must be like 2023");
+            }
+        }
+        else if (queries.getSeasons().isEmpty()) {
+            season = Nba.getCurrentSeason();
+        }
+        else {
+            season = queries.getSeasons().get(queries.getSeasons().size() - 1);
+        }
+        // the games are saved under the abbreviation the franchise went by that season
+        String abbreviation = TeamHistory.abbreviation(franchise, season);
+        if (abbreviation != null) {
+            team = abbreviation;
+        }
+        return "{\"team\":" + BirthdayQueries.quote(team) + ",\"season\":" + season +
+                ",\"games\":" + queries.getGames(team, season) + "}";
+    }
+
+    private String players(BirthdayQueries queries, HashMap<String, String> parameters) {
+        String player = parameters.containsKey("id") ? parameters.get("id") : parameters.get("name");
+        if (player == null) {
+            throw new BadQueryException("give an id or a name");
+        }
+        String playerKey = queries.findPlayer(player);
+        if (playerKey == null) {
+            return "{\"player\":" + BirthdayQueries.quote(player) + ",\"games\":[]}";
+        }
+        // a key that isn't his name is his id
+        String name = queries.getPlayerName(playerKey);
+        return "{\"playerId\":" + (playerKey.equals(name) ? "null" : BirthdayQueries.quote(playerKey)) +
+                ",\"name\":" + BirthdayQueries.quote(name) +
+                ",\"games\":" + queries.getPlayerGames(playerKey) + "}";
+    }
+
+    private String birthdays(BirthdayQueries queries, HashMap<String, String> parameters) {
+        if (!parameters.containsKey("date")) {
+            throw new BadQueryException("give a date");
+        }
+        LocalDate date = parseDate(parameters.get("date"));
+        return "{\"date\":" + BirthdayQueries.quote(date.toString()) +
+                ",\"birthdays\":" + queries.getBirthdays(date) + "}";
+    }
+
+    private String status(BirthdayQueries queries, HashMap<String, String> parameters) {
+        StringJoiner seasons = new StringJoiner(",", "[", "]");
+        queries.getSeasons().forEach(season -> seasons.add(String.valueOf(season)));
+        String loadedAt = Instant.ofEpochMilli(queries.getLoadedAtMillis()).toString();
+        return "{\"seasons\":" + seasons + ",\"games\":" + queries.getGameCount() +
+                ",\"loadedAt\":" + BirthdayQueries.quote(loadedAt) + "}";
+    }
+}
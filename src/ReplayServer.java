@@ -0,0 +1,201 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReplayServer {
+    // the recorded pages are keyed by their basketball-reference.com URLs
+    private static final String SITE = "https://www.basketball-reference.com";
+
+    private final PageCache RECORDING;
+    private final Duration LATENCY;
+    private final double ERROR_RATE;
+    private final double TRUNCATE_RATE;
+    private final int REQUESTS_PER_WINDOW;
+    private final Duration RATE_LIMIT_WINDOW;
+    // seeded, so the same settings inject the same failure pattern every run
+    private final Random RANDOM = new Random(0);
+    // the times of the requests still inside the simulated rate limit's window
+    private final ArrayDeque<Long> recentRequests = new ArrayDeque<>();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private long startNanos;
+
+
+    /**
+     * Class constructor
+     * @param recording         pages saved by a run with <code>PageFetcher.recordTo</code>
+     * @param latency           how long every response is held back, to mimic the round trip to the real site
+     * @param errorRate         the fraction of requests (0 to 1) answered with a 429, at random
+     * @param truncateRate      the fraction of pages (0 to 1) whose body is cut off halfway, at random
+     * @param requestsPerWindow how many requests the simulated rate limit allows per <code>window</code>
+     *                          (0 for no rate limit); requests beyond it get a 429 with a Retry-After header,
+     *                          like basketball-reference.com's
+     * @param window            the length of the rate limit's sliding window
+     */
+    public ReplayServer(PageCache recording, Duration latency, double errorRate, double truncateRate,
+                        int requestsPerWindow, Duration window) {
+        this.RECORDING = recording;
+        this.LATENCY = latency;
+        this.ERROR_RATE = errorRate;
+        this.TRUNCATE_RATE = truncateRate;
+        this.REQUESTS_PER_WINDOW = requestsPerWindow;
+        this.RATE_LIMIT_WINDOW = window;
+    }
+
+
+    /**
+     * starts serving the recording on a free port of the loopback address
+     * @return the server's address, for <code>PageFetcher.replayFrom</code>, e.g., "http://127.0.0.1:50123"
+     * @throws IOException if the server cannot be started
+     */
+    public String start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        handlers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replay-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlers);
+        server.start();
+        startNanos = System.nanoTime();
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+
+    /**
+     * stops the server
+     */
+    public void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+
+    /**
+     * @return what the server did since it started, e.g.,
+     *         "Replayed 1234 pages in 8.2 seconds (150.5 pages/second); 3 not recorded, 12 rate-limited,
+     *         20 injected 429s, 5 truncated."
+     */
+    public String summary() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return String.format("Replayed %d pages in %.1f seconds (%.1f pages/second); %d not recorded, " +
+                        "%d rate-limited, %d injected 429s, %d truncated.",
+                served.get(), seconds, served.get() / seconds, notFound.get(), rateLimited.get(),
+                injectedErrors.get(), truncated.get());
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!LATENCY.isZero()) {
+                try {
+                    Thread.sleep(LATENCY.toMillis());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            long retryAfterSeconds = rateLimitRetryAfter();
+            if (retryAfterSeconds > 0) {
+                rateLimited.incrementAndGet();
+                sendTooManyRequests(exchange, retryAfterSeconds);
+                return;
+            }
+            if (RANDOM.nextDouble() < ERROR_RATE) {
+                injectedErrors.incrementAndGet();
+                sendTooManyRequests(exchange, 1);
+                return;
+            }
+
+            PageCache.Entry page = RECORDING.lookup(SITE + exchange.getRequestURI());
+            if (page == null) {
+                notFound.incrementAndGet();
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+                return;
+            }
+            if (page.getEtag() != null) {
+                exchange.getResponseHeaders().set("ETag", page.getEtag());
+                if (page.getEtag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    served.incrementAndGet();
+                    exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+                    return;
+                }
+            }
+            if (page.getLastModified() != null) {
+                exchange.getResponseHeaders().set("Last-Modified", page.getLastModified());
+            }
+
+            // a recorded body is kept gzipped, so it's sent as it is to a client that accepts gzip (like the site's
+            // pages are), and decompressed for one that doesn't
+            byte[] body = Files.readAllBytes(page.getBody());
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzipped = body.length > 1 && body[0] == (byte) 0x1f && body[1] == (byte) 0x8b;
+            if (gzipped && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            else if (gzipped) {
+                body = page.readBody();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+            if (RANDOM.nextDouble() < TRUNCATE_RATE) {
+                // promise the whole page, then hang up halfway through it
+                truncated.incrementAndGet();
+                exchange.getResponseBody().write(body, 0, body.length / 2);
+                exchange.getResponseBody().flush();
+                // closing a response that's short of its Content-Length drops the connection
+                exchange.close();
+                return;
+            }
+            exchange.getResponseBody().write(body);
+            served.incrementAndGet();
+        }
+    }
+
+    /**
+     * records the request against the simulated rate limit
+     * @return 0 if the request is allowed, otherwise how many seconds until it would be
+     */
+    private synchronized long rateLimitRetryAfter() {
+        if (REQUESTS_PER_WINDOW <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long windowNanos = RATE_LIMIT_WINDOW.toNanos();
+        while (!recentRequests.isEmpty() && now - recentRequests.peekFirst() >= windowNanos) {
+            recentRequests.pollFirst();
+        }
+        if (recentRequests.size() < REQUESTS_PER_WINDOW) {
+            recentRequests.addLast(now);
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(recentRequests.peekFirst() + windowNanos - now));
+    }
+
+    private static void sendTooManyRequests(HttpExchange exchange, long retryAfterSeconds) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+        exchange.sendResponseHeaders(429, -1);
+    }
+}
@@ -0,0 +1,164 @@
+import java.net.URL;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class RequestScheduler {
+    /**
+     * basketball-reference.com seems to be throwing a 429 error if you exceed 30 requests per hour,
+     * so every request to it shares this scheduler (the extra minute is a safety margin)
+     */
+    public static final RequestScheduler BASKETBALL_REFERENCE = new RequestScheduler(30, Duration.ofMinutes(61));
+
+    /**
+     * for servers that don't need pacing (e.g., a local <code>ReplayServer</code>): a zero-length window
+     * never fills up (though a host can still be paused)
+     */
+    public static final RequestScheduler UNLIMITED = new RequestScheduler(1, Duration.ZERO);
+
+    private final int PERMITS_PER_WINDOW;
+    private final long WINDOW_NANOS;
+    private final ConcurrentHashMap<String, HostWindow> HOST_WINDOWS;
+
+
+    /**
+     * Class constructor
+     * @param permitsPerWindow the maximum number of requests any one host may receive within <code>window</code>
+     * @param window           the length of the sliding window
+     */
+    public RequestScheduler(int permitsPerWindow, Duration window) {
+        this.PERMITS_PER_WINDOW = permitsPerWindow;
+        this.WINDOW_NANOS = window.toNanos();
+        this.HOST_WINDOWS = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * blocks the calling thread until a request to <code>url</code>'s host fits in that host's sliding window
+     * @param url the page about to be requested
+     * @throws InterruptedException if the thread is interrupted while waiting for a permit
+     */
+    public void acquire(URL url) throws InterruptedException {
+        acquire(url.getHost());
+    }
+
+
+    /**
+     * blocks the calling thread until a request to <code>host</code> fits in its sliding window,
+     * then records the request. Safe to call from any number of threads at once.
+     * @param host e.g., "www.basketball-reference.com"
+     * @throws InterruptedException if the thread is interrupted while waiting for a permit
+     */
+    public void acquire(String host) throws InterruptedException {
+        HOST_WINDOWS.computeIfAbsent(host, h -> new HostWindow(h)).acquire();
+    }
+
+
+    /**
+     * holds back every request to <code>host</code> for <code>pause</code>, on top of its sliding window,
+     * e.g., for as long as a 429's Retry-After header asks
+     * @param host  e.g., "www.basketball-reference.com"
+     * @param pause how long from now the host should get no requests
+     */
+    public void pause(String host, Duration pause) {
+        HOST_WINDOWS.computeIfAbsent(host, h -> new HostWindow(h)).pauseUntil(System.nanoTime() + pause.toNanos());
+    }
+
+
+    /**
+     * @param requests how many requests a run will send to one host, starting with a full budget
+     * @return how long the sliding window will spread them over (not counting the requests themselves):
+     *         each full window's worth of requests after the first costs another window
+     */
+    public Duration projectDuration(int requests) {
+        if (requests <= PERMITS_PER_WINDOW) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(WINDOW_NANOS).multipliedBy((requests - 1) / PERMITS_PER_WINDOW);
+    }
+
+
+    /**
+     * @param requests how many requests to one host
+     * @return how much of the budget they use up, e.g., a whole window for <code>PERMITS_PER_WINDOW</code> of them
+     */
+    public Duration budgetUsedBy(int requests) {
+        return Duration.ofNanos(WINDOW_NANOS).multipliedBy(requests).dividedBy(PERMITS_PER_WINDOW);
+    }
+
+
+    /**
+     * @return e.g., "30 requests per 61 minutes"
+     */
+    @Override
+    public String toString() {
+        return PERMITS_PER_WINDOW + " requests per " + TimeUnit.NANOSECONDS.toMinutes(WINDOW_NANOS) + " minutes";
+    }
+
+
+    /**
+     * tracks the times of the most recent <code>PERMITS_PER_WINDOW</code> requests to one host
+     * in a ring buffer, so a permit frees up exactly one window after the request that used it
+     */
+    private class HostWindow {
+        private final String HOST;
+        private final long[] grantTimes = new long[PERMITS_PER_WINDOW];
+        // index of the oldest grant, and number of grants still inside the window
+        private int oldest = 0;
+        private int granted = 0;
+        private long announcedResumeNanos = 0;
+        // no permits are granted before this (see pause), unless it has already passed
+        private long pausedUntilNanos;
+        private boolean paused = false;
+
+        private HostWindow(String host) {
+            this.HOST = host;
+        }
+
+        private synchronized void acquire() throws InterruptedException {
+            while (true) {
+                long now = System.nanoTime();
+                if (paused && pausedUntilNanos - now > 0) {
+                    announcePause(pausedUntilNanos - now, pausedUntilNanos);
+                    TimeUnit.NANOSECONDS.timedWait(this, pausedUntilNanos - now);
+                    continue;
+                }
+                paused = false;
+                // forget grants that have slid out of the window
+                while (granted > 0 && now - grantTimes[oldest] >= WINDOW_NANOS) {
+                    oldest = (oldest + 1) % PERMITS_PER_WINDOW;
+                    granted--;
+                }
+                if (granted < PERMITS_PER_WINDOW) {
+                    grantTimes[(oldest + granted) % PERMITS_PER_WINDOW] = now;
+                    granted++;
+                    return;
+                }
+                long resumeNanos = grantTimes[oldest] + WINDOW_NANOS;
+                announcePause(resumeNanos - now, resumeNanos);
+                TimeUnit.NANOSECONDS.timedWait(this, resumeNanos - now);
+            }
+        }
+
+        private synchronized void pauseUntil(long resumeNanos) {
+            if (!paused || resumeNanos - pausedUntilNanos > 0) {
+                pausedUntilNanos = resumeNanos;
+                paused = true;
+            }
+        }
+
+        // let the user know about long pauses, but only once per pause rather than once per waiting thread
+        private void announcePause(long waitNanos, long resumeNanos) {
+            if (waitNanos >= TimeUnit.MINUTES.toNanos(1) && resumeNanos != announcedResumeNanos) {
+                announcedResumeNanos = resumeNanos;
+                System.out.println("Requests to " + HOST + " paused for " +
+                        TimeUnit.NANOSECONDS.toMinutes(waitNanos) + " minutes to avoid 429 errors.");
+                System.out.println("Next request will go out at " +
+                        java.time.LocalTime.now()
+                                .plus(Duration.ofNanos(waitNanos))
+                                .format(DateTimeFormatter.ofPattern("hh:mm a")) + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RetryQueue {
+    // the kinds of fetches that can be retried, and what's patched when one succeeds
+    public static final String BOX_SCORE = "box_score";  // target: month number, game key
+    public static final String ROSTER = "roster";        // target: team, month of the roster file
+
+    // a failure without a Retry-After header is retried after 1, 2, 4, ... minutes, up to a day apart
+    private static final Duration FIRST_BACKOFF = Duration.ofMinutes(1);
+    private static final Duration MAX_BACKOFF = Duration.ofDays(1);
+    // a fetch that has failed this many times is dropped (after about five days of attempts, at the backoff above)
+    private static final int MAX_ATTEMPTS = 16;
+
+    // every season's queue is a small file, read and rewritten whole, by one thread at a time
+    private static final Object LOCK = new Object();
+
+    private final int SEASON;
+
+
+    /**
+     * Class constructor
+     * @param season the NBA season, as an <code>int</code> (e.g., 2023)
+     */
+    public RetryQueue(int season) {
+        this.SEASON = season;
+    }
+
+
+    /**
+     * a failed fetch waiting to be retried
+     */
+    private static class Entry {
+        private final String KIND;
+        private final String URL;
+        private final int ATTEMPTS;
+        private final long NEXT_ATTEMPT_MILLIS;
+        private final String[] TARGET;
+
+        private Entry(String kind, String url, int attempts, long nextAttemptMillis, String[] target) {
+            this.KIND = kind;
+            this.URL = url;
+            this.ATTEMPTS = attempts;
+            this.NEXT_ATTEMPT_MILLIS = nextAttemptMillis;
+            this.TARGET = target;
+        }
+    }
+
+
+    /**
+     * @return where the season's failed fetches are kept, e.g., Season2023/RetryQueue.txt
+     */
+    public Path getPath() {
+        return Paths.get("Season" + SEASON, "RetryQueue.txt");
+    }
+
+
+    /**
+     * queues a failed fetch to be retried (or, if it's already queued, pushes its next attempt back),
+     * exactly when the server's Retry-After header asked, or otherwise with exponential backoff
+     * A fetch the server refused for good (a 4xx response other than 408 or 429, e.g., 404 for a page that
+     * doesn't exist), or that has failed <code>MAX_ATTEMPTS</code> times, is dropped instead, and reported.
+     * The file has one tab-separated line per fetch:
+     *      kind    url attempts    nextAttemptMillis   target...
+     * @param kind    <code>BOX_SCORE</code> or <code>ROSTER</code>
+     * @param url     the page that couldn't be fetched
+     * @param failure why it couldn't be
+     * @param target  what to patch once it's fetched (see <code>BOX_SCORE</code> and <code>ROSTER</code>)
+     */
+    public void add(String kind, String url, IOException failure, String... target) {
+        synchronized (LOCK) {
+            List<Entry> entries = load();
+            int attempts = 1;
+            for (int i = 0; i < entries.size(); i++) {
+                if (entries.get(i).URL.equals(url)) {
+                    attempts += entries.remove(i).ATTEMPTS;
+                    break;
+                }
+            }
+            if (isPermanent(failure) || attempts >= MAX_ATTEMPTS) {
+                save(entries);
+                System.out.println("Gave up on " + url + " after " + attempts +
+                        (attempts == 1 ? " attempt" : " attempts") + ": " + failure.getMessage());
+                return;
+            }
+            Duration retryAfter = failure instanceof HttpStatusException ?
+                    ((HttpStatusException) failure).getRetryAfter() : null;
+            if (retryAfter == null) {
+                retryAfter = attempts > 20 ? MAX_BACKOFF : FIRST_BACKOFF.multipliedBy(1L << (attempts - 1));
+                if (retryAfter.compareTo(MAX_BACKOFF) > 0) {
+                    retryAfter = MAX_BACKOFF;
+                }
+            }
+            long nextAttemptMillis = System.currentTimeMillis() + retryAfter.toMillis();
+            entries.add(new Entry(kind, url, attempts, nextAttemptMillis, target));
+            save(entries);
+            System.out.println("Queued " + url + " to be retried at " + formatTime(nextAttemptMillis) + ".");
+        }
+    }
+
+
+    /**
+     * retries every queued fetch that comes due within <code>maxWait</code> (waiting for each one's time),
+     * patching its target when it succeeds, and pushing it back when it fails again
+     * Fetches that aren't due by then stay queued for the next run.
+     * @param maxWait how long to wait for fetches that aren't due yet
+     * @return how many fetches are still queued
+     * @throws InterruptedException if the thread is interrupted while waiting, or while waiting for a
+     *                              <code>RequestScheduler</code> permit
+     */
+    public int retryDue(Duration maxWait) throws InterruptedException {
+        long deadlineMillis = System.currentTimeMillis() + maxWait.toMillis();
+        while (true) {
+            Entry next = null;
+            List<Entry> entries;
+            synchronized (LOCK) {
+                entries = load();
+                for (Entry entry : entries) {
+                    if (next == null || entry.NEXT_ATTEMPT_MILLIS < next.NEXT_ATTEMPT_MILLIS) {
+                        next = entry;
+                    }
+                }
+            }
+            if (next == null || next.NEXT_ATTEMPT_MILLIS > deadlineMillis) {
+                if (next != null) {
+                    System.out.println(entries.size() + " failed fetches are still queued in " + getPath() +
+                            "; the next is due at " + formatTime(next.NEXT_ATTEMPT_MILLIS) + ".");
+                }
+                return entries.size();
+            }
+            Thread.sleep(Math.max(next.NEXT_ATTEMPT_MILLIS - System.currentTimeMillis(), 0));
+
+            try {
+                retry(next);
+                remove(next.URL);
+                System.out.println("Retried " + next.URL + " successfully.");
+            }
+            catch (IOException e) {
+                System.out.println("Retrying " + next.URL + " failed: " + e.getMessage());
+                add(next.KIND, next.URL, e, next.TARGET);
+            }
+        }
+    }
+
+    /**
+     * @return the page of every queued fetch, soonest due first
+     */
+    public List<String> getQueuedUrls() {
+        List<Entry> entries;
+        synchronized (LOCK) {
+            entries = load();
+        }
+        entries.sort((a, b) -> Long.compare(a.NEXT_ATTEMPT_MILLIS, b.NEXT_ATTEMPT_MILLIS));
+        ArrayList<String> urls = new ArrayList<>();
+        for (Entry entry : entries) {
+            urls.add(entry.URL);
+        }
+        return urls;
+    }
+
+    // a client error that asking again won't fix (unlike 408 Request Timeout and 429 Too Many Requests)
+    private static boolean isPermanent(IOException failure) {
+        if (!(failure instanceof HttpStatusException)) {
+            return false;
+        }
+        int statusCode = ((HttpStatusException) failure).getStatusCode();
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+
+    private void retry(Entry entry) throws IOException, InterruptedException {
+        Metrics.RUN.expectPages(1);
+        if (entry.KIND.equals(BOX_SCORE)) {
+            int monthNumber = Integer.parseInt(entry.TARGET[0]);
+            // e.g., "2023-03-01 CHI DET"
+            String[] game = entry.TARGET[1].split(" ");
+            BoxScore boxScore = BoxScore.fetch(LocalDate.parse(game[0]), game[2]);
+            if (!boxScore.isComplete()) {
+                // so the next retry downloads it again, rather than reading the same page from the cache
+                PageFetcher.evict(entry.URL);
+                throw new IOException("Couldn't read " + entry.URL);
+            }
+            new GameRecordStore(SEASON).patch(monthNumber, entry.TARGET[1], boxScore);
+        }
+        else if (entry.KIND.equals(ROSTER)) {
+            new TeamScraper(SEASON).makeTeamRosterFile(entry.TARGET[0], Integer.parseInt(entry.TARGET[1]));
+        }
+        else {
+            throw new IllegalStateException("unknown kind of fetch: " + entry.KIND);
+        }
+    }
+
+
+    /**
+     * drops a queued fetch, e.g., for a game that turned out to be postponed, so has no box score to retry
+     * @param url the fetch's page (nothing happens if it isn't queued)
+     */
+    public void remove(String url) {
+        synchronized (LOCK) {
+            List<Entry> entries = load();
+            if (entries.removeIf(entry -> entry.URL.equals(url))) {
+                save(entries);
+            }
+        }
+    }
+
+    private List<Entry> load() {
+        ArrayList<Entry> entries = new ArrayList<>();
+        Path path = getPath();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length >= 4) {
+                    entries.add(new Entry(fields[0], fields[1], Integer.parseInt(fields[2]),
+                            Long.parseLong(fields[3]), Arrays.copyOfRange(fields, 4, fields.length)));
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return entries;
+    }
+
+    private void save(List<Entry> entries) {
+        Path path = getPath();
+        try {
+            if (entries.isEmpty()) {
+                Files.deleteIfExists(path);
+                return;
+            }
+            StringBuilder contents = new StringBuilder();
+            for (Entry entry : entries) {
+                contents.append(entry.KIND).append('\t').append(entry.URL)
+                        .append('\t').append(entry.ATTEMPTS).append('\t').append(entry.NEXT_ATTEMPT_MILLIS);
+                for (String field : entry.TARGET) {
+                    contents.append('\t').append(field);
+                }
+                contents.append('\n');
+            }
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, contents, StandardCharsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // e.g., "2023-03-02 04:15 PM"
+    private static String formatTime(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault())
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a"));
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class RosterCatalog {
+    /**
+     * one catalog per season, shared by everything in the run that looks for roster files
+     */
+    private static final ConcurrentHashMap<Integer, RosterCatalog> CATALOGS = new ConcurrentHashMap<>();
+
+    // e.g., "ATL4.txt", as TeamScraper names them
+    private static final Pattern ROSTER_FILE = Pattern.compile("([A-Z]{3})(\\d{1,2})\\.txt");
+
+    private final Path DIRECTORY;
+    // each team (e.g., "ATL") -> the months it has a roster saved for, in order
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<Integer>> SAVED_MONTHS = new ConcurrentHashMap<>();
+    private boolean watching = false;
+
+
+    /**
+     * Class constructor
+     * @param directory where the season's roster files are saved, e.g., Season2023/TeamRosters
+     */
+    private RosterCatalog(Path directory) {
+        this.DIRECTORY = directory;
+    }
+
+
+    /**
+     * @param season the NBA season, as an <code>int</code> (e.g., 2023)
+     * @return the season's catalog, built from a single listing of its TeamRosters directory the first time
+     *         it's asked for, and kept current from then on (see <code>watch</code>)
+     */
+    public static RosterCatalog forSeason(int season) {
+        return CATALOGS.computeIfAbsent(season, s -> {
+            RosterCatalog catalog = new RosterCatalog(Paths.get("Season" + s, "TeamRosters"));
+            catalog.scan();
+            catalog.watch();
+            return catalog;
+        });
+    }
+
+
+    /**
+     * @param team  e.g., "ATL"
+     * @param month e.g., 4 for "April"
+     * @return whether <code>team</code> has a roster saved for <code>month</code>
+     */
+    public boolean contains(String team, int month) {
+        ConcurrentSkipListSet<Integer> months = SAVED_MONTHS.get(team);
+        return months != null && months.contains(month);
+    }
+
+
+    /**
+     * finds the saved roster closest to <code>month</code>: the month itself, then 1 month before, 1 after,
+     * 2 before, and so on (so the roster acquired before the game wins a tie)
+     * (January's month before is December; months before that don't wrap around)
+     * @param team  e.g., "ATL"
+     * @param month the month in which the game was played, as an <code>int</code>
+     * @return the roster file, e.g., Season2023/TeamRosters/ATL4.txt, or <code>null</code> if the team has none
+     */
+    public File findClosest(String team, int month) {
+        ConcurrentSkipListSet<Integer> months = SAVED_MONTHS.get(team);
+        if (months == null || months.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < 12; i++) {
+            // 0, -1, +1, -2, +2, ..., +5, -6
+            int offset = i % 2 == 0 ? i / 2 : -(i + 1) / 2;
+            int monthNumber = (month + offset) % 12;
+            if (monthNumber == 0) {
+                monthNumber = 12;
+            }
+            if (months.contains(monthNumber)) {
+                return DIRECTORY.resolve(team + monthNumber + ".txt").toFile();
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * records a roster file this run has just saved, without waiting for the directory watch to notice it
+     * @param team  e.g., "ATL"
+     * @param month the month the roster was saved for, as an <code>int</code>
+     */
+    public void added(String team, int month) {
+        SAVED_MONTHS.computeIfAbsent(team, t -> new ConcurrentSkipListSet<>()).add(month);
+        // the directory may not have existed when the catalog was built
+        watch();
+    }
+
+
+    // lists the directory once (an empty catalog if it doesn't exist yet)
+    private void scan() {
+        if (!Files.isDirectory(DIRECTORY)) {
+            return;
+        }
+        try (DirectoryStream<Path> rosterFiles = Files.newDirectoryStream(DIRECTORY)) {
+            for (Path rosterFile : rosterFiles) {
+                update(rosterFile.getFileName(), true);
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * keeps the catalog current as roster files are added to (or removed from) the directory during a long run,
+     * e.g., by another run of the program, on a daemon thread
+     */
+    private synchronized void watch() {
+        if (watching || !Files.isDirectory(DIRECTORY)) {
+            return;
+        }
+        WatchService watchService;
+        try {
+            watchService = DIRECTORY.getFileSystem().newWatchService();
+            DIRECTORY.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            // without a watch, the catalog only knows about files saved by this run
+            return;
+        }
+        watching = true;
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            // some events were lost, so start over from a fresh listing
+                            SAVED_MONTHS.clear();
+                            scan();
+                        }
+                        else {
+                            update((Path) event.context(), event.kind() == StandardWatchEventKinds.ENTRY_CREATE);
+                        }
+                    }
+                    if (!key.reset()) {
+                        // the directory is gone
+                        SAVED_MONTHS.clear();
+                        break;
+                    }
+                }
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                // the run is over
+            }
+        }, "roster-catalog-" + DIRECTORY);
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void update(Path fileName, boolean exists) {
+        Matcher rosterFile = ROSTER_FILE.matcher(fileName.toString());
+        if (!rosterFile.matches()) {
+            return;
+        }
+        ConcurrentSkipListSet<Integer> months = SAVED_MONTHS.computeIfAbsent(rosterFile.group(1),
+                t -> new ConcurrentSkipListSet<>());
+        if (exists) {
+            months.add(Integer.parseInt(rosterFile.group(2)));
+        }
+        else {
+            months.remove(Integer.parseInt(rosterFile.group(2)));
+        }
+    }
+}
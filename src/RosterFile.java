@@ -0,0 +1,113 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+
+public class RosterFile {
+    /**
+     * turns a team page's roster table into a roster file: one tab-separated line per player,
+     *      playerId    name    birthDate
+     * e.g., "youngtr01    Trae Young    19980919" (the birth date is yyyyMMdd, from the table's sort key)
+     * @param rosterHtml a team page, e.g., .../teams/ATL/2023.html, or just its roster table
+     * @return the roster file's contents
+     * @throws IOException if the page cannot be read
+     */
+    public static String fromHtml(InputStream rosterHtml) throws IOException {
+        StringBuilder contents = new StringBuilder();
+        new TableRowReader(tableId -> tableId.equals("roster"), (tableId, row) -> {
+            String name = row.get("player");
+            String birthDate = row.getCsk("birth_date");
+            // skip header rows, and players without a full birth date
+            if (name == null || birthDate == null || !birthDate.matches("\\d{8}")) {
+                return;
+            }
+            // the name is the cell's link; anything after it is a note, e.g., "Darius Days&nbsp;&nbsp;(TW)"
+            // for a two-way player
+            int note = name.indexOf("&nbsp;");
+            if (note != -1) {
+                name = name.substring(0, note).trim();
+            }
+            // e.g., "youngtr01"
+            String playerId = row.getPlayerId("player");
+            contents.append(playerId == null ? "" : playerId).append('\t')
+                    .append(name).append('\t').append(birthDate).append('\n');
+        }).read(rosterHtml);
+        return contents.toString();
+    }
+
+
+    /**
+     * @param rosterFile e.g., Season2023/TeamRosters/ATL4.txt
+     * @return whether it holds the raw HTML rows of the roster table that roster files used to be saved as
+     *         (rather than one line per player)
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isHtml(Path rosterFile) throws IOException {
+        try (InputStream in = Files.newInputStream(rosterFile)) {
+            return in.read() == '<';
+        }
+    }
+
+
+    /**
+     * reads a roster file saved as raw HTML rows in the format of <code>fromHtml</code>, leaving the file as it is
+     * @param rosterFile e.g., Season2023/TeamRosters/ATL4.txt
+     * @return the roster file's contents, as <code>convert</code> would rewrite them
+     * @throws IOException if the file cannot be read
+     */
+    public static String readHtml(Path rosterFile) throws IOException {
+        // the saved rows were cut out of the roster table, so they're put back in one to be read
+        try (InputStream rosterHtml = new SequenceInputStream(new SequenceInputStream(
+                new ByteArrayInputStream("<table id=\"roster\">".getBytes(StandardCharsets.UTF_8)),
+                Files.newInputStream(rosterFile)),
+                new ByteArrayInputStream("</table>".getBytes(StandardCharsets.UTF_8)))) {
+            return fromHtml(rosterHtml);
+        }
+    }
+
+
+    /**
+     * rewrites a roster file saved as raw HTML rows in the format of <code>fromHtml</code>, keeping its
+     * last-modified time (which says when the roster was scraped)
+     * @param rosterFile e.g., Season2023/TeamRosters/ATL4.txt
+     * @return whether the file needed converting
+     * @throws IOException if the file cannot be read or written
+     */
+    public static boolean convert(Path rosterFile) throws IOException {
+        if (!isHtml(rosterFile)) {
+            return false;
+        }
+        FileTime lastModified = Files.getLastModifiedTime(rosterFile);
+        String contents = readHtml(rosterFile);
+        // replaced all at once, so nothing reading the file sees it half-written
+        GameRecordStore.publish(rosterFile, contents.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(rosterFile, lastModified);
+        return true;
+    }
+
+
+    /**
+     * converts every roster file (in every Season directory's TeamRosters) still saved as raw HTML rows
+     * @return how many files were converted
+     * @throws IOException if a file cannot be read or written
+     */
+    public static int convertAll() throws IOException {
+        int converted = 0;
+        try (DirectoryStream<Path> seasons = Files.newDirectoryStream(Paths.get("."), "Season*")) {
+            for (Path season : seasons) {
+                Path rosters = season.resolve("TeamRosters");
+                if (!Files.isDirectory(rosters)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> rosterFiles = Files.newDirectoryStream(rosters, "*.txt")) {
+                    for (Path rosterFile : rosterFiles) {
+                        if (convert(rosterFile)) {
+                            converted++;
+                        }
+                    }
+                }
+            }
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RosterSnapshot {
+    /**
+     * every roster file is parsed at most once per run (or again if it's rewritten), no matter how many
+     * months (or how many <code>Nba</code> instances) resolve to it
+     */
+    private static final ConcurrentHashMap<String, RosterSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private final long LAST_MODIFIED;
+    // whether the file is saved as tab-separated lines (false if it was left as raw HTML rows by of(file, false))
+    private final boolean CONVERTED;
+    // parallel arrays, one entry per player with an in-season birthday, sorted by birthday, then name
+    private final int[] BIRTH_MONTHS;
+    private final int[] BIRTH_DAYS;
+    private final PlayerBirthday[] PLAYERS;
+
+
+    /**
+     * Class constructor
+     */
+    private RosterSnapshot(long lastModified, boolean converted, int[] birthMonths, int[] birthDays,
+                           PlayerBirthday[] players) {
+        this.LAST_MODIFIED = lastModified;
+        this.CONVERTED = converted;
+        this.BIRTH_MONTHS = birthMonths;
+        this.BIRTH_DAYS = birthDays;
+        this.PLAYERS = players;
+    }
+
+
+    /**
+     * @param rosterFile a locally saved team roster file, e.g., Season2023/TeamRosters/ATL4.txt
+     * @return the parsed roster, shared with every other caller asking for the same file
+     */
+    public static RosterSnapshot of(File rosterFile) {
+        return of(rosterFile, true);
+    }
+
+
+    /**
+     * @param rosterFile a locally saved team roster file, e.g., Season2023/TeamRosters/ATL4.txt
+     * @param convert    whether a file still saved as raw HTML rows is rewritten (see <code>RosterFile.convert</code>),
+     *                   or only converted in memory (e.g., for a <code>FetchPlanner</code>, which writes nothing)
+     * @return the parsed roster, shared with every other caller asking for the same file (the same either way,
+     *         except that a snapshot read without converting its file is read again, converting it, if asked to)
+     */
+    public static RosterSnapshot of(File rosterFile, boolean convert) {
+        String key = rosterFile.getPath();
+        long lastModified = rosterFile.lastModified();
+        // months run side by side, so the check and parse happen under the map's lock for the file: the first
+        // caller converts and parses it, and the rest wait for its snapshot rather than reading it mid-rewrite
+        return SNAPSHOTS.compute(key, (path, snapshot) -> {
+            // converting keeps the file's modified time, so a snapshot that left it as HTML is only good for
+            // callers that don't want it converted either
+            if (snapshot != null && snapshot.LAST_MODIFIED == lastModified && (snapshot.CONVERTED || !convert)) {
+                return snapshot;
+            }
+            Metrics.Timer timer = Metrics.RUN.startStage(Metrics.labels("stage", "roster_parse", "file", path));
+            try {
+                return parse(rosterFile, lastModified, convert);
+            }
+            finally {
+                timer.stop();
+            }
+        });
+    }
+
+    public int size() { return PLAYERS.length; }
+
+    public int getBirthMonth(int i) { return BIRTH_MONTHS[i]; }
+
+    public int getBirthDay(int i) { return BIRTH_DAYS[i]; }
+
+    public PlayerBirthday getPlayer(int i) { return PLAYERS[i]; }
+
+
+    /**
+     * reads a roster file saved by <code>TeamScraper</code> (see <code>RosterFile</code>), keeping only
+     * in-season birthdays, after converting it if it was saved as raw HTML rows
+     * (bypassing the snapshot cache, which <code>of</code> should be used for everywhere but benchmarks)
+     */
+    static RosterSnapshot parse(File rosterFile, long lastModified) {
+        return parse(rosterFile, lastModified, true);
+    }
+
+    private static RosterSnapshot parse(File rosterFile, long lastModified, boolean convert) {
+        ArrayList<Object[]> entries = new ArrayList<>();
+        Path path = rosterFile.toPath();
+        boolean converted;
+        try {
+            // one line per player: id, name, and birth date (e.g., 19980919), read straight from the mapped file,
+            // so only in-season birthday boys' ids and names are ever decoded
+            TabFileReader roster;
+            converted = convert || !RosterFile.isHtml(path);
+            if (!converted) {
+                byte[] lines = RosterFile.readHtml(path).getBytes(StandardCharsets.UTF_8);
+                roster = TabFileReader.wrap(lines, lines.length);
+            }
+            else {
+                RosterFile.convert(path);
+                roster = TabFileReader.map(path);
+            }
+            while (roster.nextLine()) {
+                if (roster.fieldCount() < 3) {
+                    continue;
+                }
+                int birthDate = roster.getInt(2);
+                int birthMonthNumber = birthDate / 100 % 100;
+                // only select birthdays that occur during the season
+                if (Nba.MONTHS.containsKey(birthMonthNumber)) {
+                    int birthDay = birthDate % 100;
+                    entries.add(new Object[]{BirthdayIndex.dayOfSeason(birthMonthNumber, birthDay),
+                            birthMonthNumber, birthDay,
+                            PlayerBirthday.of(roster.getString(0), roster.getString(1), birthDate / 10000)});
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        // sort once, in season order, then alphabetically among players sharing a birthday
+        entries.sort(Comparator.<Object[]>comparingInt(entry -> (int) entry[0])
+                .thenComparing(entry -> ((PlayerBirthday) entry[3]).getName()));
+        int[] birthMonths = new int[entries.size()];
+        int[] birthDays = new int[entries.size()];
+        PlayerBirthday[] players = new PlayerBirthday[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            birthMonths[i] = (int) entries.get(i)[1];
+            birthDays[i] = (int) entries.get(i)[2];
+            players[i] = (PlayerBirthday) entries.get(i)[3];
+        }
+        return new RosterSnapshot(lastModified, converted, birthMonths, birthDays, players);
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public class ScheduleGame {
+    private final LocalDate GAME_DATE;
+    private final String VISITOR;
+    private final String HOME;
+    private final String VISITOR_POINTS;
+    private final String HOME_POINTS;
+
+
+    /**
+     * Class constructor
+     * @param gameDate      a LocalDate representation of the game date
+     * @param visitor       the visiting team's abbreviation, e.g., "ATL"
+     * @param home          the home team's abbreviation, e.g., "BOS"
+     * @param visitorPoints the visiting team's final score, or an empty String if the game hasn't been played
+     * @param homePoints    the home team's final score, or an empty String if the game hasn't been played
+     */
+    public ScheduleGame(LocalDate gameDate, String visitor, String home, String visitorPoints, String homePoints) {
+        this.GAME_DATE = gameDate;
+        this.VISITOR = visitor;
+        this.HOME = home;
+        this.VISITOR_POINTS = visitorPoints;
+        this.HOME_POINTS = homePoints;
+    }
+
+
+    /**
+     * streams through a month's schedule page once, handing each game to <code>onGame</code> as soon as its
+     * row has been read
+     * @param scheduleInputStream a schedule page, e.g., .../leagues/NBA_2023_games-october.html
+     * @param onGame              receives each game in the schedule table, in order
+     * @throws IOException if the page cannot be read
+     */
+    public static void parse(InputStream scheduleInputStream, Consumer<ScheduleGame> onGame) throws IOException {
+        new TableRowReader(tableId -> tableId.equals("schedule"), (tableId, row) -> {
+            LocalDate gameDate = getGameDate(row);
+            String visitor = getTeam(row, "visitor_team_name");
+            String home = getTeam(row, "home_team_name");
+            // skip header rows repeated inside the table body
+            if (gameDate != null && visitor != null && home != null) {
+                onGame.accept(new ScheduleGame(gameDate, visitor, home,
+                        valueOrEmpty(row.get("visitor_pts")),
+                        valueOrEmpty(row.get("home_pts"))));
+            }
+        }).read(scheduleInputStream);
+    }
+
+    // the date cell's sort key starts with the date, e.g., csk="202210180BOS"
+    private static LocalDate getGameDate(TableRow row) {
+        String csk = row.getCsk("date_game");
+        if (csk == null || csk.length() < 8) {
+            return null;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(csk.substring(0, 4)),
+                    Integer.parseInt(csk.substring(4, 6)),
+                    Integer.parseInt(csk.substring(6, 8)));
+        }
+        catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // the team cell links to the team's season page, e.g., href="/teams/BOS/2023.html"
+    private static String getTeam(TableRow row, String stat) {
+        String href = row.getHref(stat);
+        if (href == null || !href.startsWith("/teams/")) {
+            return null;
+        }
+        int start = "/teams/".length();
+        return href.substring(start, href.indexOf('/', start));
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    public LocalDate getGameDate() { return GAME_DATE; }
+
+    public String getVisitor() { return VISITOR; }
+
+    public String getHome() { return HOME; }
+
+    public String getVisitorPoints() { return VISITOR_POINTS; }
+
+    public String getHomePoints() { return HOME_POINTS; }
+}
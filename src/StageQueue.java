@@ -0,0 +1,77 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StageQueue<T> {
+    // put after the last item, once every producer is done (and put back by each consumer that takes it)
+    private static final Object END = new Object();
+
+    private final ArrayBlockingQueue<Object> ITEMS;
+    // e.g., queue="box_scores",season="2023",month="March"
+    private final String LABELS;
+    // producers that haven't closed the queue yet
+    private final AtomicInteger openProducers;
+
+
+    /**
+     * Class constructor
+     * @param capacity  how many items the queue holds before <code>put</code> waits for a consumer to take one
+     *                  (so a fast stage can only get this far ahead of a slow one)
+     * @param producers how many stages (or threads) put items in, each of which closes it when it's done
+     * @param labels    for the queue's metrics, e.g., queue="box_scores",season="2023",month="March"
+     */
+    public StageQueue(int capacity, int producers, String labels) {
+        this.ITEMS = new ArrayBlockingQueue<>(capacity);
+        this.openProducers = new AtomicInteger(producers);
+        this.LABELS = labels;
+    }
+
+
+    /**
+     * adds an item, waiting for room if the queue is full
+     * Time spent waiting is counted as the producer being held back by whatever consumes the queue.
+     * @param item e.g., a game to fetch the box score of
+     * @throws InterruptedException if the pipeline is stopped while waiting
+     */
+    public void put(T item) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        ITEMS.put(item);
+        Metrics.RUN.observe("nba_pipeline_wait_seconds",
+                "Time pipeline stages spent waiting on a full (put) or empty (take) queue.",
+                LABELS + "," + Metrics.labels("side", "put"), System.nanoTime() - waitStart);
+        Metrics.RUN.add("nba_pipeline_items_total", "Items passed between pipeline stages.", LABELS, 1);
+    }
+
+
+    /**
+     * tells the queue one of its producers is done; once they all are, its consumers get <code>null</code>
+     * from <code>take</code> after the last item
+     * @throws InterruptedException if the pipeline is stopped while waiting for room
+     */
+    public void close() throws InterruptedException {
+        if (openProducers.decrementAndGet() == 0) {
+            ITEMS.put(END);
+        }
+    }
+
+
+    /**
+     * removes the next item, waiting for one if the queue is empty
+     * Time spent waiting is counted as the consumer being starved by whatever produces the queue.
+     * @return the item, or <code>null</code> if every producer is done and every item has been taken
+     * @throws InterruptedException if the pipeline is stopped while waiting
+     */
+    @SuppressWarnings("unchecked")
+    public T take() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        Object item = ITEMS.take();
+        Metrics.RUN.observe("nba_pipeline_wait_seconds",
+                "Time pipeline stages spent waiting on a full (put) or empty (take) queue.",
+                LABELS + "," + Metrics.labels("side", "take"), System.nanoTime() - waitStart);
+        if (item == END) {
+            // for the queue's other consumers
+            ITEMS.put(END);
+            return null;
+        }
+        return (T) item;
+    }
+}
@@ -0,0 +1,68 @@
+public class StatLine {
+    public enum Status { PLAYED, DID_NOT_PLAY, DID_NOT_DRESS, NO_STATS }
+
+    /**
+     * for players with no row in the box score (or no stats in it for some other reason)
+     */
+    public static final StatLine NONE = new StatLine(Status.NO_STATS, null);
+
+    // the stats we report for birthday boys, in the order they appear in a stat line
+    public static final String[] STATS = {"mp", "pts", "fg", "fga", "trb", "ast"};
+
+    private final Status STATUS;
+    // one value per STATS entry, e.g., {"35:11", "12", "4", "4", "4", "1"}, if STATUS is PLAYED
+    private final String[] VALUES;
+
+
+    /**
+     * Class constructor
+     * @param status whether the player played
+     * @param values one value per <code>STATS</code> entry if he did, otherwise <code>null</code>
+     */
+    public StatLine(Status status, String[] values) {
+        this.STATUS = status;
+        this.VALUES = values;
+    }
+
+    public Status getStatus() { return STATUS; }
+
+
+    /**
+     * @param stat one of <code>STATS</code>, e.g., "pts"
+     * @return the player's value for it (e.g., "12"), or <code>null</code> if he didn't play
+     */
+    public String get(String stat) {
+        if (VALUES == null) {
+            return null;
+        }
+        for (int i = 0; i < STATS.length; i++) {
+            if (STATS[i].equals(stat)) {
+                return VALUES[i];
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * @return the stat line as it appears in a month file, e.g., " (35:11 mp, 12 pts, 4/4 fga, 4 reb, 1 ast)",
+     *         " (DNP)", " (DND)", or an empty String if there are no stats
+     */
+    @Override
+    public String toString() {
+        switch (STATUS) {
+            case PLAYED:
+                return " (" + VALUES[0] + " mp, " +
+                        VALUES[1] + " pts, " +
+                        VALUES[2] + "/" + VALUES[3] + " fga, " +
+                        VALUES[4] + " reb, " +
+                        VALUES[5] + " ast)";
+            case DID_NOT_PLAY:
+                return " (DNP)";
+            case DID_NOT_DRESS:
+                return " (DND)";
+            default:
+                return "";
+        }
+    }
+}
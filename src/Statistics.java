@@ -1,6 +1,6 @@
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.Scanner;
 
@@ -23,21 +23,16 @@ public class Statistics {
      * @return the field goal percentage, as a String, in the form "0.xxx"
      * @throws IOException
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
      */
     public String scrapeLeagueAvgFGPct() throws IOException, InterruptedException {
         // so that percentage is formatted "0.xxx" rather than ".xxx"
         String fg = "0";
 
-        Time.pauseExecutionIfNecessary();
+        Metrics.RUN.expectPages(1);
+        InputStream leagueInputStream = PageFetcher.open(getLeaguePage(), CachePolicy.forLeaguePage(SEASON));
 
-        URL boxScorePage = new URL("https://www.basketball-reference.com/leagues/NBA_" +
-                SEASON + ".html");
-        HttpURLConnection boxScoreConnection = (HttpURLConnection) boxScorePage.openConnection();
-        Time.BRUrlConnectionsThisHour++;
-        InputStream boxScoreInputStream = boxScoreConnection.getInputStream();
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(boxScoreInputStream))) {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(leagueInputStream))) {
             String line;
             while ((line = br.readLine()) != null) {
                 if (line.contains("id=\"shooting-team\"") && line.contains("data-stat=\"fg_pct\" >")) {
@@ -51,22 +46,27 @@ public class Statistics {
         catch (Exception e) {
             return "";
         }
-        boxScoreConnection.disconnect();
         return fg;
     }
 
 
+    /**
+     * @return the season's league page, e.g., https://www.basketball-reference.com/leagues/NBA_2023.html
+     */
+    public String getLeaguePage() {
+        return "https://www.basketball-reference.com/leagues/NBA_" + SEASON + ".html";
+    }
+
+
     /**
      * creates Statistics.txt, which contains a win-loss record for day-after-birthday-games
-     * and a field goal percentage for birthday boys in those games
+     * and a field goal percentage for birthday boys in those games, tallied by <code>GroupedStatistics</code>
+     * from each month's <code>BirthdayGameFile</code>
      * @throws InterruptedException
      */
-    // future idea: separate out stats for sub-25th birthdays
+    // (for breakdowns by age, team, etc., see GroupedStatistics.makeReportFiles)
     public void makeStatisticsFile() throws InterruptedException {
-        int wins = 0;
-        int losses = 0;
-        int fgm = 0;
-        int fga = 0;
+        ArrayList<GroupedStatistics.Part> parts = new ArrayList<>();
         LinkedList<Integer> monthNumbersWithCompleteData = new LinkedList<>();
         LinkedList<Integer> monthNumbersWithIncompleteData = new LinkedList<>();
         for (int monthNumber : Nba.MONTHS.keySet()) {
@@ -76,94 +76,48 @@ public class Statistics {
             }
             // if the month in question has already begun, then we are interested in data from that month
             if (java.time.LocalDate.now().isAfter(java.time.LocalDate.of(year, monthNumber, 1))) {
-                String path = "Season" + SEASON + "/" + Nba.MONTHS.get(monthNumber) + ".txt";
-                File file = new File(path);
-
-                // check whether the month file already exists
-                if (file.exists()) {
-                    // check the date the .txt file was last modified
-                    // and mark the data as complete/incomplete accordingly
-                    if (monthNumber == 12) {
-                        year++;
-                    }
-                    if (java.time.LocalDate.ofEpochDay(file.lastModified() / (long) (1000 * 60 * 60 * 24))
-                            .isAfter(java.time.LocalDate.of(year, monthNumber % 12 + 1, 1))) {
-                        monthNumbersWithCompleteData.add(monthNumber);
-                    }
-                    else {
-                        monthNumbersWithIncompleteData.add(monthNumber);
-                    }
-                    // read through existing/relevant month files and tally stats
-                    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                        String line;
-                        // read each line
-                        while ((line = br.readLine()) != null) {
-                            // checks that the game has already occurred
-                            if (line.contains(" at ") && line.contains("-")) {
-                                String[] lineArray = line.split(" ");
-                                String away = lineArray[1];
-                                String home = lineArray[3].substring(0,3);
-                                boolean awayTeamWon = Integer.parseInt(lineArray[4].split("-")[0]) > Integer.parseInt(lineArray[4].split("-")[1]);
-                                // following two lines may contain birthday boys (as birthday-boys for different
-                                // teams are printed on separate lines)
-                                String oneLineLater = br.readLine();
-                                String twoLinesLater = br.readLine();
-
-                                // the away team has a birthday boy
-                                if (oneLineLater.contains(away) || (twoLinesLater != null && twoLinesLater.contains(away))) {
-                                    // and the away team won
-                                    if (awayTeamWon) {
-                                        wins++;
-                                    }
-                                    else {
-                                        losses++;
-                                    }
-                                }
-                                // the home team has a birthday boy
-                                if (oneLineLater.contains(home) || (twoLinesLater != null && twoLinesLater.contains(home))) {
-                                    // but the home team lost
-                                    if (awayTeamWon) {
-                                        losses++;
-                                    }
-                                    else {
-                                        wins++;
-                                    }
-                                }
-                            }
-                        }
-                    } catch (FileNotFoundException e) {
-                        throw new RuntimeException(e);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                        String line;
-                        // read each line
-                        while ((line = br.readLine()) != null) {
-                            // checks that the line contains player stats for birthday-boys
-                            if (line.contains(" turned ") && line.contains(" fga, ")) {
-                                // while loop allows for multiple birthdays on the same team
-                                while (line.contains("(")) {
-                                    line = line.substring(line.indexOf("(")+1);
-                                    String statLine = line.substring(0, line.indexOf(")"));
-                                    String[] fgmFga = statLine.split(", ")[2].split(" ")[0].split("/");
-                                    // increments field goals made/attempted by birthday boys
-                                    fgm += Integer.parseInt(fgmFga[0]);
-                                    fga += Integer.parseInt(fgmFga[1]);
-                                }
-                            }
-                        }
-                    }
-                    catch (FileNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                    catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
+                Path birthdayGamePath;
+                try {
+                    birthdayGamePath = new GameRecordStore(SEASON).findBirthdayGamePath(monthNumber);
+                }
+                catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                if (birthdayGamePath == null) {
+                    continue;
+                }
+                parts.add(new GroupedStatistics.Part(SEASON, monthNumber, birthdayGamePath));
+
+                // check the date the month's games were last recorded
+                // and mark the data as complete/incomplete accordingly
+                if (monthNumber == 12) {
+                    year++;
+                }
+                if (java.time.LocalDate.ofEpochDay(birthdayGamePath.toFile().lastModified() / (long) (1000 * 60 * 60 * 24))
+                        .isAfter(java.time.LocalDate.of(year, monthNumber % 12 + 1, 1))) {
+                    monthNumbersWithCompleteData.add(monthNumber);
+                }
+                else {
+                    monthNumbersWithIncompleteData.add(monthNumber);
                 }
             }
         }
 
+        // tally stats over every month at once
+        GroupedStatistics.Totals all;
+        Metrics.Timer timer = Metrics.RUN.startStage(Metrics.labels("stage", "statistics",
+                "season", String.valueOf(SEASON)));
+        try {
+            all = new GroupedStatistics(parts).aggregate(GroupedStatistics.Grouping.ALL)[0];
+        }
+        finally {
+            timer.stop();
+        }
+        long wins = all.get(0, GroupedStatistics.WINS);
+        long losses = all.get(0, GroupedStatistics.LOSSES);
+        long fgm = all.get(0, GroupedStatistics.FG);
+        long fga = all.get(0, GroupedStatistics.FGA);
+
         String path = "Season" + SEASON + "/" + "Statistics.txt";
         try {
             File file = new File(path);
@@ -204,7 +158,7 @@ public class Statistics {
      * asks the user whether they'd like a new Statistics.txt file saved locally
      * (and does it if the answer is yes)
      * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
-     *                              <code>Time.pauseExecutionIfNecessary()</code>
+     *                              wait for a <code>RequestScheduler</code> permit
      */
     public void run() throws InterruptedException {
         System.out.println("Do you want me to gather birthday-game stats?");
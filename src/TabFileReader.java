@@ -0,0 +1,164 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class TabFileReader {
+    // the whole file, e.g., memory-mapped
+    private final ByteBuffer BYTES;
+    // where the next line starts
+    private int position;
+
+    // the current line's fields, as byte offsets into BYTES (each end is exclusive)
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    // reused for decoding fields into Strings
+    private byte[] scratch = new byte[64];
+
+
+    /**
+     * Class constructor
+     * @param bytes the file's contents, from position 0 to the limit
+     */
+    private TabFileReader(ByteBuffer bytes) {
+        this.BYTES = bytes;
+    }
+
+
+    /**
+     * memory-maps a text file of tab-separated lines (e.g., a roster file or a month's game records), so its
+     * fields can be read straight out of the mapped bytes: numbers are parsed from them, and only the fields
+     * asked for as Strings are ever decoded
+     * @param path e.g., Season2023/TeamRosters/ATL4.txt
+     * @return a reader positioned before the file's first line
+     * @throws IOException if the file cannot be mapped
+     */
+    public static TabFileReader map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new TabFileReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+
+    /**
+     * @param bytes  tab-separated lines already in memory (e.g., the complete entries of a journal)
+     * @param length how many of <code>bytes</code> to read
+     * @return a reader positioned before the first line
+     */
+    public static TabFileReader wrap(byte[] bytes, int length) {
+        return new TabFileReader(ByteBuffer.wrap(bytes, 0, length).slice());
+    }
+
+
+    /**
+     * moves to the next line, and finds its fields (a '\r' before the line's '\n' is left out)
+     * @return whether there was another line
+     */
+    public boolean nextLine() {
+        int limit = BYTES.limit();
+        if (position >= limit) {
+            return false;
+        }
+        fieldCount = 0;
+        int fieldStart = position;
+        int i = position;
+        while (i < limit) {
+            byte b = BYTES.get(i);
+            if (b == '\n') {
+                break;
+            }
+            if (b == '\t') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+            i++;
+        }
+        int lineEnd = i > fieldStart && BYTES.get(i - 1) == '\r' ? i - 1 : i;
+        addField(fieldStart, lineEnd);
+        position = i + 1;
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+
+    /**
+     * @return how many fields the current line has (1 for an empty line)
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+
+    /**
+     * @param field e.g., 0 for the line's first field
+     * @return the field, decoded from UTF-8
+     */
+    public String getString(int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        BYTES.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * @param field e.g., 2 for a roster line's birth date
+     * @return the field, parsed as a decimal <code>int</code> without decoding it, e.g., 19980919
+     * @throws NumberFormatException if the field isn't a number
+     */
+    public int getInt(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = start < end && BYTES.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("not a number: \"" + getString(field) + "\"");
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = BYTES.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("not a number: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+
+    /**
+     * @param field e.g., 0 for a game record line's kind
+     * @param text  an ASCII String, e.g., "G"
+     * @return whether the field is exactly <code>text</code> (compared without decoding the field)
+     */
+    public boolean fieldEquals(int field, String text) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (BYTES.get(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
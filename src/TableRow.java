@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class TableRow {
+    // one entry per cell, in the order the cells appear in the row
+    private String[] stats = new String[32];
+    private String[] texts = new String[32];
+    private String[] csks = new String[32];
+    private String[] appendCsvs = new String[32];
+    private String[] hrefs = new String[32];
+    private int cellCount;
+
+    void clear() {
+        cellCount = 0;
+    }
+
+    void startCell(String stat, String csk, String appendCsv) {
+        if (cellCount == stats.length) {
+            stats = Arrays.copyOf(stats, cellCount * 2);
+            texts = Arrays.copyOf(texts, cellCount * 2);
+            csks = Arrays.copyOf(csks, cellCount * 2);
+            appendCsvs = Arrays.copyOf(appendCsvs, cellCount * 2);
+            hrefs = Arrays.copyOf(hrefs, cellCount * 2);
+        }
+        stats[cellCount] = stat;
+        csks[cellCount] = csk;
+        appendCsvs[cellCount] = appendCsv;
+        hrefs[cellCount] = null;
+    }
+
+    void setHref(String href) {
+        // keep the cell's first link
+        if (hrefs[cellCount] == null) {
+            hrefs[cellCount] = href;
+        }
+    }
+
+    void endCell(String text) {
+        texts[cellCount] = text;
+        cellCount++;
+    }
+
+
+    /**
+     * @param stat a cell's <code>data-stat</code> attribute, e.g., "pts"
+     * @return the text of the row's first cell with that <code>data-stat</code>,
+     *         or <code>null</code> if the row doesn't have one
+     */
+    public String get(String stat) {
+        int cell = indexOf(stat);
+        return cell == -1 ? null : texts[cell];
+    }
+
+
+    /**
+     * @param stat a cell's <code>data-stat</code> attribute, e.g., "date_game"
+     * @return that cell's <code>csk</code> (sort key) attribute, or <code>null</code>
+     */
+    public String getCsk(String stat) {
+        int cell = indexOf(stat);
+        return cell == -1 ? null : csks[cell];
+    }
+
+
+    /**
+     * @param stat a cell's <code>data-stat</code> attribute, e.g., "player"
+     * @return that cell's <code>data-append-csv</code> attribute (basketball-reference.com's player id,
+     *         e.g., "youngtr01"), or <code>null</code>
+     */
+    public String getAppendCsv(String stat) {
+        int cell = indexOf(stat);
+        return cell == -1 ? null : appendCsvs[cell];
+    }
+
+
+    /**
+     * @param stat a cell's <code>data-stat</code> attribute, e.g., "home_team_name"
+     * @return the <code>href</code> of the first link in that cell, or <code>null</code>
+     */
+    public String getHref(String stat) {
+        int cell = indexOf(stat);
+        return cell == -1 ? null : hrefs[cell];
+    }
+
+    /**
+     * @param stat a cell's <code>data-stat</code> attribute, e.g., "player"
+     * @return the id of the player linked in that cell (e.g., "youngtr01"), from its
+     *         <code>data-append-csv</code> attribute, or failing that, his page's address;
+     *         or <code>null</code> if the cell has neither
+     */
+    public String getPlayerId(String stat) {
+        String playerId = getAppendCsv(stat);
+        if (playerId != null) {
+            return playerId;
+        }
+        String href = getHref(stat);
+        if (href == null || !href.endsWith(".html")) {
+            return null;
+        }
+        return href.substring(href.lastIndexOf('/') + 1, href.length() - ".html".length());
+    }
+
+
+    /**
+     * @return a copy of every cell's text, keyed by its <code>data-stat</code> attribute (the first cell wins
+     *         if more than one has the same attribute), to keep once the reader has moved on to the next row
+     */
+    public HashMap<String, String> toMap() {
+        HashMap<String, String> cells = new HashMap<>();
+        for (int i = 0; i < cellCount; i++) {
+            if (stats[i] != null) {
+                cells.putIfAbsent(stats[i], texts[i]);
+            }
+        }
+        return cells;
+    }
+
+    private int indexOf(String stat) {
+        for (int i = 0; i < cellCount; i++) {
+            if (stat.equals(stats[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,109 @@
+import java.io.*;
+import java.util.function.Predicate;
+
+public class TableRowReader implements HtmlTokenizer.Handler {
+    /**
+     * receives each row of the tables we're reading, as soon as its closing tag is read
+     */
+    public interface RowHandler {
+        /**
+         * @param tableId the id of the table the row is in, e.g., "schedule" or "box-ATL-game-basic"
+         * @param row     the row's cells (reused for the next row, so copy anything worth keeping)
+         */
+        void row(String tableId, TableRow row);
+    }
+
+    private final Predicate<String> TABLE_FILTER;
+    private final RowHandler ROW_HANDLER;
+    private final TableRow ROW = new TableRow();
+    private final StringBuilder CELL_TEXT = new StringBuilder();
+    private String tableId;
+    private boolean inTable;
+    private boolean inRow;
+    private boolean inCell;
+
+
+    /**
+     * Class constructor
+     * @param tableFilter decides, by table id, which tables are worth reading; cells of every other table
+     *                    are skipped without building any Strings
+     * @param rowHandler  receives each row of the tables that pass <code>tableFilter</code>
+     */
+    public TableRowReader(Predicate<String> tableFilter, RowHandler rowHandler) {
+        this.TABLE_FILTER = tableFilter;
+        this.ROW_HANDLER = rowHandler;
+    }
+
+
+    /**
+     * streams through a page once, handing every row of the wanted tables to the <code>RowHandler</code>
+     * @param in an HTML page from basketball-reference.com
+     * @throws IOException if the page cannot be read
+     */
+    public void read(InputStream in) throws IOException {
+        new HtmlTokenizer(this).tokenize(in);
+    }
+
+    @Override
+    public void startTag(String name, HtmlTokenizer.Attributes attributes) {
+        switch (name) {
+            case "table":
+                tableId = attributes.get("id");
+                inTable = tableId != null && TABLE_FILTER.test(tableId);
+                break;
+            case "tr":
+                if (inTable) {
+                    ROW.clear();
+                    inRow = true;
+                }
+                break;
+            case "th":
+            case "td":
+                if (inRow) {
+                    ROW.startCell(attributes.get("data-stat"),
+                            attributes.get("csk"),
+                            attributes.get("data-append-csv"));
+                    CELL_TEXT.setLength(0);
+                    inCell = true;
+                }
+                break;
+            case "a":
+                if (inCell) {
+                    ROW.setHref(attributes.get("href"));
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void endTag(String name) {
+        switch (name) {
+            case "table":
+                inTable = false;
+                inRow = false;
+                inCell = false;
+                break;
+            case "tr":
+                if (inRow) {
+                    inRow = false;
+                    inCell = false;
+                    ROW_HANDLER.row(tableId, ROW);
+                }
+                break;
+            case "th":
+            case "td":
+                if (inCell) {
+                    ROW.endCell(CELL_TEXT.toString().trim());
+                    inCell = false;
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void text(char[] buffer, int start, int length) {
+        if (inCell) {
+            CELL_TEXT.append(buffer, start, length);
+        }
+    }
+}
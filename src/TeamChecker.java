@@ -16,7 +16,8 @@ public class TeamChecker {
     public TeamChecker(int season) {
         this.SEASON = season;
         allTeamRosters = new HashMap<>();
-        for (String team : Nba.TEAMS.keySet()) {
+        // only the franchises that played that season
+        for (String team : TeamHistory.teams(season)) {
             allTeamRosters.put(team, new LinkedList<>());
         }
     }
@@ -40,19 +41,13 @@ public class TeamChecker {
         }
         else {
             // otherwise, for each team...
-            for (String team : Nba.TEAMS.keySet()) {
+            RosterCatalog rosters = RosterCatalog.forSeason(SEASON);
+            for (String team : TeamHistory.teams(SEASON)) {
                 // and every month in the season
                 for (Integer monthNumber : Nba.MONTHS.keySet()) {
-                    String path = allTeamRostersFolder + "/" + team + monthNumber + ".txt";
-                    try {
-                        File file = new File(path);
-                        // check whether the roster file already exists
-                        if (file.exists()) {
-                            allTeamRosters.get(team).add(monthNumber);
-                        }
-                    } 
-                    catch (Exception e) {
-                        throw new RuntimeException(e);
+                    // check whether the roster file already exists
+                    if (rosters.contains(team, monthNumber)) {
+                        allTeamRosters.get(team).add(monthNumber);
                     }
                 }
             }
@@ -91,7 +86,9 @@ public class TeamChecker {
             System.out.println("Your team roster data was last retrieved in " +
                     Nba.MONTHS.get(lastUpdateMonth) + " of " + year + ".");
             System.out.println("Do you want me to retrieve updated data from basketball-reference.com?");
-            System.out.println("(Note: Doing so will likely add an hour to program execution.)");
+            System.out.println("(Note: Doing so takes " + allTeamRosters.size() + " requests, which use up about " +
+                    Metrics.formatDuration(RequestScheduler.BASKETBALL_REFERENCE.budgetUsedBy(allTeamRosters.size())
+                            .toNanos()) + " of the request budget.)");
             System.out.print("Enter \"Y\" or \"N\": ");
 
             Scanner scan = new Scanner(System.in);
@@ -105,5 +102,18 @@ public class TeamChecker {
         }
     }
 
+    /**
+     * setter method for <code>boolean newWebScrapeNeeded</code> that doesn't ask the user:
+     * we only scrape new rosters if some team has none saved at all
+     */
+    public void setNewWebScrapeNeededIfMissing() {
+        for (LinkedList<Integer> list : allTeamRosters.values()) {
+            if (list.isEmpty()) {
+                newWebScrapeNeeded = true;
+                break;
+            }
+        }
+    }
+
     public boolean isNewWebScrapeNeeded() { return newWebScrapeNeeded; }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class TeamHistory {
+    /**
+     * the first season the abbreviations below cover (1976-77, the first after the ABA merger)
+     */
+    public static final int FIRST_SEASON = 1977;
+
+    /**
+     * maps each franchise that has moved, been renamed, or joined the league since <code>FIRST_SEASON</code>
+     * (by its key in <code>Nba.TEAMS</code>) to the abbreviation basketball-reference.com uses for it from each
+     * season on, or <code>null</code> for seasons it didn't play
+     * e.g., for BRK, 1977 -> NYN, 1978 -> NJN, and 2013 -> BRK
+     * Every other franchise has gone by its key since <code>FIRST_SEASON</code>.
+     */
+    private static final HashMap<String, TreeMap<Integer, String>> ABBREVIATIONS = new HashMap<>();
+    // every abbreviation in ABBREVIATIONS or Nba.TEAMS -> its franchise's key in Nba.TEAMS
+    private static final HashMap<String, String> FRANCHISES = new HashMap<>();
+    static {
+        // "season abbreviation", or "season -" from the season the franchise stopped (or hadn't started) playing
+        add("BRK", "1977 NYN", "1978 NJN", "2013 BRK");
+        add("CHO", "1977 -", "1989 CHH", "2003 -", "2005 CHA", "2015 CHO");
+        add("DAL", "1977 -", "1981 DAL");
+        add("LAC", "1977 BUF", "1979 SDC", "1985 LAC");
+        add("MEM", "1977 -", "1996 VAN", "2002 MEM");
+        add("MIA", "1977 -", "1989 MIA");
+        add("MIN", "1977 -", "1990 MIN");
+        add("NOP", "1977 -", "2003 NOH", "2006 NOK", "2008 NOH", "2014 NOP");
+        add("OKC", "1977 SEA", "2009 OKC");
+        add("ORL", "1977 -", "1990 ORL");
+        add("SAC", "1977 KCK", "1986 SAC");
+        add("TOR", "1977 -", "1996 TOR");
+        add("UTA", "1977 NOJ", "1980 UTA");
+        add("WAS", "1977 WSB", "1998 WAS");
+        for (String team : Nba.TEAMS.keySet()) {
+            FRANCHISES.put(team, team);
+        }
+    }
+
+    private static void add(String team, String... seasons) {
+        TreeMap<Integer, String> abbreviations = new TreeMap<>();
+        for (String season : seasons) {
+            String[] fields = season.split(" ");
+            String abbreviation = fields[1].equals("-") ? null : fields[1];
+            abbreviations.put(Integer.parseInt(fields[0]), abbreviation);
+            if (abbreviation != null) {
+                FRANCHISES.put(abbreviation, team);
+            }
+        }
+        ABBREVIATIONS.put(team, abbreviations);
+    }
+
+
+    /**
+     * @param team   a franchise's key in <code>Nba.TEAMS</code>, e.g., "BRK"
+     * @param season the NBA season, as an <code>int</code> (e.g., 2010)
+     * @return the abbreviation basketball-reference.com uses for the franchise that season (e.g., "NJN"), in its
+     *         team page and schedule links, or <code>null</code> if the franchise didn't play that season
+     */
+    public static String abbreviation(String team, int season) {
+        TreeMap<Integer, String> abbreviations = ABBREVIATIONS.get(team);
+        if (abbreviations == null) {
+            return team;
+        }
+        Map.Entry<Integer, String> abbreviation = abbreviations.floorEntry(season);
+        return abbreviation == null ? null : abbreviation.getValue();
+    }
+
+
+    /**
+     * @param abbreviation any abbreviation a franchise has gone by since <code>FIRST_SEASON</code>, e.g., "SEA"
+     * @return the franchise's key in <code>Nba.TEAMS</code> (e.g., "OKC"), or <code>null</code> if it isn't one
+     */
+    public static String franchise(String abbreviation) {
+        return FRANCHISES.get(abbreviation);
+    }
+
+
+    /**
+     * @param season the NBA season, as an <code>int</code> (e.g., 1990)
+     * @return the key in <code>Nba.TEAMS</code> of every franchise that played that season, in <code>Nba.TEAMS</code>
+     *         order
+     */
+    public static List<String> teams(int season) {
+        ArrayList<String> teams = new ArrayList<>();
+        for (String team : Nba.TEAMS.keySet()) {
+            if (abbreviation(team, season) != null) {
+                teams.add(team);
+            }
+        }
+        return teams;
+    }
+
+
+    /**
+     * @param season the NBA season, as an <code>int</code> (e.g., 1984)
+     * @throws IllegalArgumentException if the season is before <code>FIRST_SEASON</code>, so its teams can't be
+     *                                  looked up
+     */
+    public static void checkSeason(int season) {
+        if (season < FIRST_SEASON) {
+            throw new IllegalArgumentException("the " + season + " NBA season is before " + FIRST_SEASON +
+                    ", the first season whose teams are known");
+        }
+    }
+}
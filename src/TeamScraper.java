@@ -1,7 +1,13 @@
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TeamScraper {
     private final int SEASON;
@@ -19,47 +25,71 @@ public class TeamScraper {
     /**
      * scrapes team roster data
      * @param team  a <code>String</code> representation of the team abbreviation, e.g., "ATL"
-     * @return      the HTML code from basketball-reverence.com that produces the table containing
-     *              the latest <code>team</code> roster
+     * @return      the latest <code>team</code> roster from basketball-reference.com, one line per player
+     *              (see <code>RosterFile.fromHtml</code>)
+     * @throws IOException if the team's page cannot be fetched
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
      */
-    public String getTeamRosterHTML(String team) {
-        StringBuilder pageContents = new StringBuilder();
-        try {
-            Time.pauseExecutionIfNecessary();
+    public String getTeamRoster(String team) throws IOException, InterruptedException {
+        // every team's fetch waits its turn for a request permit here
+        // (unless the page is still fresh in the page cache)
+        try (InputStream teamInputStream = PageFetcher.open(getTeamPage(team), CachePolicy.forTeamPage(SEASON))) {
+            return RosterFile.fromHtml(teamInputStream);
+        }
+    }
 
-            URL teamPage = new URL("https://www.basketball-reference.com/teams/" + team +
-                    "/" + SEASON + ".html#roster");
 
-            // using HttpURLConnection so that I can .disconnect() when done
-            HttpURLConnection teamConnection = (HttpURLConnection) teamPage.openConnection();
-            Time.BRUrlConnectionsThisHour++;
-            InputStream teamInputStream = teamConnection.getInputStream();
+    /**
+     * @param team e.g., "ATL"
+     * @return the team's page for the season, e.g., https://www.basketball-reference.com/teams/ATL/2023.html
+     */
+    public String getTeamPage(String team) {
+        return "https://www.basketball-reference.com/teams/" + TeamHistory.abbreviation(team, SEASON) + "/" + SEASON +
+                ".html";
+    }
 
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(teamInputStream))) {
-                String line;
-                // read each line
-                while ((line = br.readLine()) != null) {
-                    // checks if line is part of Roster table (contains birthday)
-                    if (line.contains("<tr") && line.contains("birth_date")) {
-                        pageContents.append(line).append(System.lineSeparator());
-                    }
-                }
-            }
-            teamInputStream.close();
-            teamConnection.disconnect();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+
+    /**
+     * writes <code>team</code>'s roster to its roster file for <code>month</code>
+     * (e.g., Season2023/TeamRosters/ATL4.txt)
+     * @param team  e.g., "ATL"
+     * @param month the month the roster is saved for, as an <code>int</code>
+     * @throws IOException if the team's page cannot be fetched, or the file cannot be written
+     *                     (a failed fetch leaves the file as it was)
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
+     */
+    public void makeTeamRosterFile(String team, int month) throws IOException, InterruptedException {
+        String path = "Season" + SEASON + "/TeamRosters/" + team + month + ".txt";
+        // fetch before opening the file, so a failed request doesn't leave an empty roster behind
+        String roster;
+        Metrics.Timer scrapeTimer = Metrics.RUN.startStage(Metrics.labels("stage", "roster_scrape",
+                "season", String.valueOf(SEASON), "team", team));
+        try {
+            roster = getTeamRoster(team);
+        }
+        finally {
+            scrapeTimer.stop();
+        }
+        Metrics.Timer writeTimer = Metrics.RUN.startStage(Metrics.labels("stage", "roster_write",
+                "season", String.valueOf(SEASON), "team", team));
+        try {
+            Files.writeString(Paths.get(path), roster, StandardCharsets.UTF_8);
+        }
+        finally {
+            writeTimer.stop();
         }
-        return pageContents.toString();
+        RosterCatalog.forSeason(SEASON).added(team, month);
     }
 
 
     /**
-     * writes the Roster table HTML (containing birthdays) from basketball-reference.com to local .txt files
+     * writes every team's roster (containing birthdays) from basketball-reference.com to local .txt files
+     * @throws InterruptedException since this scrapes data from basketball-reference.com, we may have to
+     *                              wait for a <code>RequestScheduler</code> permit
      */
-    public void makeNewTeamRosterFiles() {
+    public void makeNewTeamRosterFiles() throws InterruptedException {
         System.out.println("Gathering roster data from BasketballReference.com...");
 
         int month = Time.today.getMonthValue();
@@ -79,28 +109,51 @@ public class TeamScraper {
         }
         int finalMonth = month;
 
-        Nba.TEAMS.keySet().parallelStream().forEach( (team) -> {
-
-            String path = "Season" + SEASON + "/TeamRosters/" + team + finalMonth + ".txt";
-            try {
-                File file = new File(path);
-
-                if (!file.exists()) {
-                    file.createNewFile();
+        // fetch every team's page on the fetch executor rather than in a parallel stream, so the blocking
+        // requests (and request-budget waits) never hold threads of the common ForkJoinPool
+        ArrayList<CompletableFuture<Void>> rosterFiles = new ArrayList<>();
+        AtomicInteger savedRosters = new AtomicInteger();
+        List<String> teams = TeamHistory.teams(SEASON);
+        Metrics.RUN.expectPages(teams.size());
+        for (String team : teams) {
+            rosterFiles.add(CompletableFuture.runAsync(() -> {
+                try {
+                    makeTeamRosterFile(team, finalMonth);
+                    savedRosters.incrementAndGet();
                 }
-
-                FileWriter fw = new FileWriter(path);
-                PrintWriter pw = new PrintWriter(fw);
-                // clear any old contents of the file before writing updated pageContents
-                pw.flush();
-                pw.write(getTeamRosterHTML(team));
-                pw.close();
-                fw.close();
-            } catch (IOException e) {
-                System.out.println("An error occurred.");
-                e.printStackTrace();
+                catch (IOException e) {
+                    // one team's failure doesn't hold up the rest: its page is fetched again later, and until
+                    // then, its closest saved roster is used
+                    System.out.println("Couldn't save " + team + "'s roster: " + e.getMessage());
+                    new RetryQueue(SEASON).add(RetryQueue.ROSTER, getTeamPage(team), e,
+                            team, String.valueOf(finalMonth));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // a CompletionException's cause is passed through as is, so it's unwrapped below
+                    throw new CompletionException(e);
+                }
+            }, PageFetcher.ioExecutor()));
+        }
+        try {
+            CompletableFuture.allOf(rosterFiles.toArray(new CompletableFuture<?>[0])).get();
+        }
+        catch (ExecutionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof InterruptedException) {
+                throw (InterruptedException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
             }
-        });
-        System.out.println("Okay, rosters are set.");
+            throw new RuntimeException(failure);
+        }
+        if (savedRosters.get() == 0) {
+            System.out.println("No rosters could be saved.");
+        }
+        else {
+            System.out.println("Okay, rosters are set" + (savedRosters.get() < teams.size() ?
+                    " (" + savedRosters.get() + " of " + teams.size() + " teams)." : "."));
+        }
     }
 }
\ No newline at end of file